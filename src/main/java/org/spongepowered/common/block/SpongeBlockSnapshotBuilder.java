@@ -101,8 +101,7 @@ public SpongeBlockSnapshotBuilder from(Location<World> location) {
         this.worldUuid = location.getExtent().getUniqueId();
         this.coords = location.getBlockPosition();
         if (location.hasTileEntity()) {
-            this.compound = new NBTTagCompound();
-            ((TileEntity) location.getTileEntity().get()).writeToNBT(this.compound);
+            tileEntity((TileEntity) location.getTileEntity().get());
             final List<ImmutableDataManipulator<?, ?>> list = Lists.newArrayList();
             for (DataManipulator<?, ?> manipulator : location.getContainers()) {
                 list.add(manipulator.asImmutable());
@@ -117,6 +116,19 @@ public SpongeBlockSnapshotBuilder unsafeNbt(NBTTagCompound compound) {
         return this;
     }
 
+    /**
+     * Writes the NBT of the tile entity straight into this builder, which
+     * saves the copy {@link #unsafeNbt(NBTTagCompound)} makes.
+     *
+     * @param tileEntity The tile entity at the snapshot position
+     * @return This builder, for chaining
+     */
+    public SpongeBlockSnapshotBuilder tileEntity(TileEntity tileEntity) {
+        this.compound = new NBTTagCompound();
+        tileEntity.writeToNBT(this.compound);
+        return this;
+    }
+
     @SuppressWarnings("rawtypes")
     @Override
     public SpongeBlockSnapshotBuilder add(DataManipulator<?, ?> manipulator) {
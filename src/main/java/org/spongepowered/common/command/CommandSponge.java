@@ -27,6 +27,7 @@
 import static org.spongepowered.api.util.command.args.GenericArguments.dimension;
 import static org.spongepowered.api.util.command.args.GenericArguments.firstParsing;
 import static org.spongepowered.api.util.command.args.GenericArguments.flags;
+import static org.spongepowered.api.util.command.args.GenericArguments.integer;
 import static org.spongepowered.api.util.command.args.GenericArguments.literal;
 import static org.spongepowered.api.util.command.args.GenericArguments.optional;
 import static org.spongepowered.api.util.command.args.GenericArguments.seq;
@@ -38,8 +39,10 @@
 import co.aikar.timings.TimingsManager;
 import com.google.common.base.Function;
 import com.google.common.collect.Iterables;
+import net.minecraft.util.BlockPos;
 import net.minecraft.world.WorldProvider;
 import net.minecraft.world.WorldServer;
+import org.spongepowered.api.event.Event;
 import org.spongepowered.api.plugin.PluginContainer;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.TextBuilder;
@@ -63,16 +66,27 @@
 import org.spongepowered.asm.mixin.MixinEnvironment;
 import org.spongepowered.common.Sponge;
 import org.spongepowered.common.configuration.SpongeConfig;
+import org.spongepowered.common.event.AsyncObserverExecutor;
+import org.spongepowered.common.event.EventInstrumentation;
+import org.spongepowered.common.interfaces.IMixinChunk;
 import org.spongepowered.common.interfaces.IMixinWorld;
 import org.spongepowered.common.interfaces.IMixinWorldProvider;
+import org.spongepowered.common.service.scheduler.AsyncTaskExecutor;
+import org.spongepowered.common.service.scheduler.SpongeScheduler;
+import org.spongepowered.common.service.scheduler.SyncScheduler;
+import org.spongepowered.common.service.scheduler.SyncTaskQueue;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.world.DimensionManager;
 import org.spongepowered.common.world.SpongeDimensionType;
+import org.spongepowered.common.world.WorldPregenerator;
 
 import java.io.File;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import javax.annotation.Nullable;
@@ -98,6 +112,9 @@ public static CommandSpec getCommand() {
         nonFlagChildren.register(getHeapCommand(), "heap");
         nonFlagChildren.register(getPluginsCommand(), "plugins");
         nonFlagChildren.register(getTimingsCommand(), "timings");
+        nonFlagChildren.register(getEventsCommand(), "events");
+        nonFlagChildren.register(getPregenCommand(), "pregen");
+        nonFlagChildren.register(getSchedulerCommand(), "scheduler");
         flagChildren.register(getChunksCommand(), "chunks");
         flagChildren.register(getConfigCommand(), "config");
         flagChildren.register(getReloadCommand(), "reload"); // TODO: Should these two be subcommands of config, and what is now config be set?
@@ -111,7 +128,10 @@ INDENT, title("heap"), LONG_INDENT, "Dump live JVM heap\n",
                         INDENT, title("reload"), LONG_INDENT, "Reloads a global, dimension, or world config\n",
                         INDENT, title("save"), LONG_INDENT, "Saves a global, dimension, or world config\n",
                         INDENT, title("version"), LONG_INDENT, "Prints current Sponge version\n",
-                        INDENT, title("audit"), LONG_INDENT, "Audit mixin classes for implementation",
+                        INDENT, title("audit"), LONG_INDENT, "Audit mixin classes for implementation\n",
+                        INDENT, title("events"), LONG_INDENT, "Prints the slowest event listeners, skipped events and async observer queues\n",
+                        INDENT, title("pregen"), LONG_INDENT, "Generates all chunks within a radius of a world's spawn\n",
+                        INDENT, title("scheduler"), LONG_INDENT, "Prints the scheduled tasks of each plugin\n",
                         INDENT, title("plugins"), LONG_INDENT, "List currently installed plugins"))
                 .arguments(firstParsing(nonFlagChildren, flags()
                         .flag("-global", "g")
@@ -233,13 +253,25 @@ protected Text value(Object text) {
                     }
 
                     protected Text getChunksInfo(WorldServer worldserver) {
+                        int trackedPositions = 0;
+                        long trackedMemory = 0;
+                        long maxTrackedMemory = 0;
+                        for (Object chunk : worldserver.theChunkProviderServer.loadedChunks) {
+                            long chunkMemory = ((IMixinChunk) chunk).getTrackedPositionsMemoryUsage();
+                            trackedPositions += ((IMixinChunk) chunk).getTrackedPositionCount();
+                            trackedMemory += chunkMemory;
+                            maxTrackedMemory = Math.max(maxTrackedMemory, chunkMemory);
+                        }
                         return Texts.of(NEWLINE_TEXT, key("Dimension: "), value(worldserver.provider.getDimensionId()), NEWLINE_TEXT,
                                 key("Loaded chunks: "), value(worldserver.theChunkProviderServer.getLoadedChunkCount()), NEWLINE_TEXT,
                                 key("Active chunks: "), value(worldserver.activeChunkSet.size()), NEWLINE_TEXT,
                                 key("Entities: "), value(worldserver.loadedEntityList.size()), NEWLINE_TEXT,
                                 key("Tile Entities: "), value(worldserver.loadedTileEntityList.size()), NEWLINE_TEXT,
                                 key("Removed Entities:"), value(worldserver.unloadedEntityList.size()), NEWLINE_TEXT,
-                                key("Removed Tile Entities: "), value(worldserver.tileEntitiesToBeRemoved), NEWLINE_TEXT
+                                key("Removed Tile Entities: "), value(worldserver.tileEntitiesToBeRemoved), NEWLINE_TEXT,
+                                key("Tracked block owners: "), value(trackedPositions), NEWLINE_TEXT,
+                                key("Block owner memory: "), value(String.format("%.1f KiB (largest chunk %.1f KiB)",
+                                        trackedMemory / 1024D, maxTrackedMemory / 1024D)), NEWLINE_TEXT
                         );
                     }
                 })
@@ -486,4 +518,197 @@ private static CommandCallable getTimingsCommand() {
                         .build(), "cost")
                 .build();
     }
+
+    private static CommandCallable getEventsCommand() {
+        return CommandSpec.builder()
+                .permission("sponge.command.events")
+                .description(Texts.of("Shows the listeners that spend the most time handling events, the events skipped for lack of "
+                        + "listeners and the async observer queues."))
+                .executor((src, args) -> {
+                    Map<PluginContainer, AsyncObserverExecutor.QueueStats> observerStats =
+                            Sponge.getSpongeEventManager().getAsyncObserverStats();
+                    if (!observerStats.isEmpty()) {
+                        TextBuilder builder = Texts.builder("Async observers:");
+                        for (Map.Entry<PluginContainer, AsyncObserverExecutor.QueueStats> entry : observerStats.entrySet()) {
+                            AsyncObserverExecutor.QueueStats queue = entry.getValue();
+                            builder.append(NEWLINE_TEXT, Texts.of(INDENT, title(entry.getKey().getId()), " ",
+                                    queue.getDepth(), " queued, ",
+                                    queue.getCompleted(), " completed, ",
+                                    queue.getDropped(), " dropped"));
+                        }
+                        src.sendMessage(builder.build());
+                    }
+                    List<Map.Entry<Class<? extends Event>, Long>> skippedEvents =
+                            new ArrayList<>(Sponge.getSpongeEventManager().getSkippedEvents().entrySet());
+                    if (!skippedEvents.isEmpty()) {
+                        skippedEvents.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+                        TextBuilder builder = Texts.builder("Events skipped without listeners:");
+                        for (Map.Entry<Class<? extends Event>, Long> entry : skippedEvents.subList(0, Math.min(skippedEvents.size(), 10))) {
+                            // Nested event types, like ChangeBlockEvent.Break, are only distinct with their outer types
+                            String name = entry.getKey().getName();
+                            name = name.substring(name.lastIndexOf('.') + 1).replace('$', '.');
+                            builder.append(NEWLINE_TEXT, Texts.of(INDENT, title(name), " ", entry.getValue(), " times"));
+                        }
+                        src.sendMessage(builder.build());
+                    }
+                    EventInstrumentation instrumentation = Sponge.getSpongeEventManager().getInstrumentation();
+                    if (!instrumentation.isEnabled()) {
+                        src.sendMessage(Texts.of("Please enable event instrumentation by typing /sponge events on"));
+                        return CommandResult.empty();
+                    }
+                    List<EventInstrumentation.ListenerStats> stats = instrumentation.getStats();
+                    TextBuilder builder = Texts.builder("Event listeners by total time:");
+                    for (EventInstrumentation.ListenerStats listener : stats.subList(0, Math.min(stats.size(), 10))) {
+                        long invocations = listener.getInvocations();
+                        builder.append(NEWLINE_TEXT, Texts.of(INDENT, title(listener.getPlugin().getId()), " ",
+                                listener.getEventClass().getSimpleName(), ": ",
+                                invocations, " calls, ",
+                                String.format("%.2fms total, ", listener.getTotalNanos() / 1000000.0),
+                                String.format("%.3fms p99", listener.getPercentileNanos(0.99) / 1000000.0),
+                                instrumentation.isAllocationTrackingSupported()
+                                        ? ", " + (invocations == 0 ? 0 : listener.getAllocatedBytes() / invocations) + " bytes/call" : ""));
+                    }
+                    src.sendMessage(builder.build());
+                    return CommandResult.success();
+                })
+                .child(CommandSpec.builder()
+                        .executor((src, args) -> {
+                            Sponge.getSpongeEventManager().getInstrumentation().reset();
+                            src.sendMessage(Texts.of("Event instrumentation reset"));
+                            return CommandResult.success();
+                        })
+                        .build(), "reset")
+                .child(CommandSpec.builder()
+                        .executor((src, args) -> {
+                            Sponge.getSpongeEventManager().getInstrumentation().setEnabled(true);
+                            src.sendMessage(Texts.of("Enabled event instrumentation"));
+                            return CommandResult.success();
+                        })
+                        .build(), "on")
+                .child(CommandSpec.builder()
+                        .executor((src, args) -> {
+                            Sponge.getSpongeEventManager().getInstrumentation().setEnabled(false);
+                            src.sendMessage(Texts.of("Disabled event instrumentation"));
+                            return CommandResult.success();
+                        })
+                        .build(), "off")
+                .build();
+    }
+
+    private static CommandCallable getSchedulerCommand() {
+        return CommandSpec.builder()
+                .permission("sponge.command.scheduler")
+                .description(Texts.of("Shows the async tasks of each plugin and the sync tasks that exceeded the tick budget."))
+                .executor((src, args) -> {
+                    TextBuilder builder = Texts.builder();
+                    Optional<AsyncTaskExecutor> executor = SpongeScheduler.getInstance().getAsyncTaskExecutor();
+                    if (executor.isPresent()) {
+                        int maxPoolSize = executor.get().getMaxPoolSize();
+                        builder.append(Texts.of("Async scheduler threads: " + executor.get().getPoolSize() + "/"
+                                + (maxPoolSize == Integer.MAX_VALUE ? "unlimited" : maxPoolSize)));
+                        for (Map.Entry<PluginContainer, AsyncTaskExecutor.TaskStats> entry : executor.get().getTaskStats().entrySet()) {
+                            AsyncTaskExecutor.TaskStats stats = entry.getValue();
+                            builder.append(NEWLINE_TEXT, Texts.of(INDENT, title(entry.getKey().getId()), " ",
+                                    stats.getActive(), " active, ",
+                                    stats.getQueued(), " queued, ",
+                                    stats.getCompleted(), " completed, ",
+                                    stats.getRejected(), " rejected, ",
+                                    String.format("%.2fms average", stats.getAverageNanos() / 1000000.0)));
+                        }
+                    } else {
+                        builder.append(Texts.of("No async tasks have run yet"));
+                    }
+                    SyncTaskQueue queue = SpongeScheduler.getInstance().getSyncTaskQueue();
+                    builder.append(NEWLINE_TEXT, Texts.of("Main thread queue: ", queue.getDepth(), " queued, ",
+                            queue.getExecuted(), " run, ", queue.getReplaced(), " replaced"));
+                    Map<PluginContainer, SyncScheduler.TaskStats> syncStats = SpongeScheduler.getInstance().getSyncTaskStats();
+                    if (!syncStats.isEmpty()) {
+                        builder.append(NEWLINE_TEXT, Texts.of("Sync tasks over the tick budget:"));
+                        for (Map.Entry<PluginContainer, SyncScheduler.TaskStats> entry : syncStats.entrySet()) {
+                            builder.append(NEWLINE_TEXT, Texts.of(INDENT, title(entry.getKey().getId()), " ",
+                                    entry.getValue().getOverruns(), " overruns, ",
+                                    entry.getValue().getDeferred(), " deferred"));
+                        }
+                    }
+                    src.sendMessage(builder.build());
+                    return CommandResult.success();
+                })
+                .build();
+    }
+
+    private static CommandCallable getPregenCommand() {
+        return CommandSpec.builder()
+                .permission("sponge.command.pregen")
+                .description(Texts.of("Shows the progress of running world pre-generation tasks."))
+                .executor((src, args) -> {
+                    if (WorldPregenerator.getRunning().isEmpty()) {
+                        src.sendMessage(Texts.of("No worlds are being pre-generated"));
+                        return CommandResult.empty();
+                    }
+                    for (World world : Sponge.getGame().getServer().getWorlds()) {
+                        WorldPregenerator pregenerator = WorldPregenerator.get((WorldServer) world);
+                        if (pregenerator != null) {
+                            src.sendMessage(getPregenStatus(world, pregenerator));
+                        }
+                    }
+                    return CommandResult.success();
+                })
+                .child(CommandSpec.builder()
+                        .description(Texts.of("Starts generating a radius in chunks around the spawn, or resumes the saved task"))
+                        .arguments(flags()
+                                .flag("-circle", "c")
+                                .buildWith(seq(world(Texts.of("world"), Sponge.getGame()), optional(integer(Texts.of("radius"))))))
+                        .executor((src, args) -> {
+                            WorldServer world = getLoadedWorld(args.<WorldProperties>getOne("world").get());
+                            Optional<Integer> radius = args.getOne("radius");
+                            WorldPregenerator pregenerator;
+                            if (radius.isPresent()) {
+                                if (radius.get() < 0) {
+                                    throw new CommandException(Texts.of("The radius must not be negative"));
+                                }
+                                BlockPos spawn = world.getSpawnPoint();
+                                pregenerator = WorldPregenerator.start(world, spawn.getX() >> 4, spawn.getZ() >> 4, radius.get(),
+                                        args.hasAny("circle") ? WorldPregenerator.Shape.CIRCLE : WorldPregenerator.Shape.SQUARE);
+                            } else {
+                                pregenerator = WorldPregenerator.resume(world);
+                                if (pregenerator == null) {
+                                    throw new CommandException(Texts.of("World ", world.getWorldInfo().getWorldName(),
+                                            " has no saved pre-generation task, a radius is required"));
+                                }
+                            }
+                            src.sendMessage(getPregenStatus((World) world, pregenerator));
+                            return CommandResult.success();
+                        })
+                        .build(), "start")
+                .child(CommandSpec.builder()
+                        .description(Texts.of("Stops pre-generating a world, keeping its progress"))
+                        .arguments(world(Texts.of("world"), Sponge.getGame()))
+                        .executor((src, args) -> {
+                            WorldServer world = getLoadedWorld(args.<WorldProperties>getOne("world").get());
+                            if (!WorldPregenerator.stop(world)) {
+                                throw new CommandException(Texts.of("World ", world.getWorldInfo().getWorldName(), " is not being pre-generated"));
+                            }
+                            src.sendMessage(Texts.of("Stopped pre-generating world ", world.getWorldInfo().getWorldName()));
+                            return CommandResult.success();
+                        })
+                        .build(), "stop")
+                .build();
+    }
+
+    private static WorldServer getLoadedWorld(WorldProperties properties) throws CommandException {
+        Optional<World> world = Sponge.getGame().getServer().getWorld(properties.getUniqueId());
+        if (!world.isPresent()) {
+            throw new CommandException(Texts.of("World ", properties.getWorldName(), " is not loaded, cannot work with it"));
+        }
+        return (WorldServer) world.get();
+    }
+
+    private static Text getPregenStatus(World world, WorldPregenerator pregenerator) {
+        long secondsLeft = pregenerator.getEstimatedSecondsLeft();
+        return Texts.of(title(world.getName()), ": ",
+                pregenerator.getCompletedChunks(), "/", pregenerator.getTotalChunks(), " chunks",
+                String.format(" (%.1f%%), %.1f chunks/s, ", 100.0 * pregenerator.getCompletedChunks() / pregenerator.getTotalChunks(),
+                        pregenerator.getChunksPerSecond()),
+                secondsLeft < 0 ? "ETA unknown" : String.format("ETA %d:%02d:%02d", secondsLeft / 3600, secondsLeft / 60 % 60, secondsLeft % 60));
+    }
 }
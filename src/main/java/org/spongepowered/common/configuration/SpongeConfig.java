@@ -96,6 +96,19 @@ public enum Type {
     // BUNGEECORD
     public static final String BUNGEECORD_IP_FORWARDING = "ip-forwarding";
 
+    // EVENTS
+    public static final String EVENTS_ASYNC_OBSERVER_THREADS = "async-observer-threads";
+    public static final String EVENTS_ASYNC_OBSERVER_QUEUE_SIZE = "async-observer-queue-size";
+    public static final String EVENTS_INSTRUMENTATION = "instrumentation";
+
+    // SCHEDULER
+    public static final String SCHEDULER_ASYNC_CORE_THREADS = "async-core-threads";
+    public static final String SCHEDULER_ASYNC_MAX_THREADS = "async-max-threads";
+    public static final String SCHEDULER_ASYNC_QUEUE_SIZE = "async-queue-size";
+    public static final String SCHEDULER_ASYNC_REJECTION_POLICY = "async-rejection-policy";
+    public static final String SCHEDULER_SYNC_TICK_BUDGET = "sync-tick-budget";
+    public static final String SCHEDULER_SYNC_DEFERRABLE_PLUGINS = "sync-deferrable-plugins";
+
     // GENERAL
     public static final String GENERAL_DISABLE_WARNINGS = "disable-warnings";
     public static final String GENERAL_CHUNK_LOAD_OVERRIDE = "chunk-load-override";
@@ -126,6 +139,11 @@ public enum Type {
     // WORLD
     public static final String WORLD_INFINITE_WATER_SOURCE = "infinite-water-source";
     public static final String WORLD_FLOWING_LAVA_DECAY = "flowing-lava-decay";
+    public static final String WORLD_PARALLEL_GENERATION = "parallel-generation";
+    public static final String WORLD_PARALLEL_GENERATION_QUEUE_SIZE = "parallel-generation-queue-size";
+    public static final String WORLD_MOVEMENT_EVENT_DISTANCE = "movement-event-distance";
+    public static final String WORLD_MOVEMENT_EVENT_ANGLE = "movement-event-angle";
+    public static final String WORLD_MOVEMENT_EVENT_BLOCK_CHANGES_ONLY = "movement-event-block-changes-only";
 
     private static final String HEADER = "1.0\n"
             + "\n"
@@ -254,10 +272,24 @@ public static class GlobalConfig extends ConfigBase {
         @Setting(value = MODULE_BUNGEECORD)
         private BungeeCordCategory bungeeCord = new BungeeCordCategory();
 
+        @Setting
+        private EventsCategory events = new EventsCategory();
+
+        @Setting
+        private SchedulerCategory scheduler = new SchedulerCategory();
+
         public BungeeCordCategory getBungeeCord() {
             return this.bungeeCord;
         }
 
+        public EventsCategory getEvents() {
+            return this.events;
+        }
+
+        public SchedulerCategory getScheduler() {
+            return this.scheduler;
+        }
+
         public SqlCategory getSql() {
             return this.sql;
         }
@@ -397,6 +429,116 @@ public Map<String, String> getAliases() {
         }
     }
 
+    @ConfigSerializable
+    public static class EventsCategory extends Category {
+
+        @Setting(value = EVENTS_ASYNC_OBSERVER_THREADS, comment = "Number of threads used to call async event observers")
+        private int asyncObserverThreads = 2;
+        @Setting(value = EVENTS_ASYNC_OBSERVER_QUEUE_SIZE,
+                comment = "Max number of pending events per plugin for async observers before further events are dropped")
+        private int asyncObserverQueueSize = 10000;
+        @Setting(value = EVENTS_INSTRUMENTATION,
+                comment = "Record call counts, latency and allocations of every event listener, viewable with /sponge events")
+        private boolean instrumentation = false;
+
+        public int getAsyncObserverThreads() {
+            return Math.max(1, this.asyncObserverThreads);
+        }
+
+        public void setAsyncObserverThreads(int asyncObserverThreads) {
+            this.asyncObserverThreads = asyncObserverThreads;
+        }
+
+        public int getAsyncObserverQueueSize() {
+            return Math.max(1, this.asyncObserverQueueSize);
+        }
+
+        public void setAsyncObserverQueueSize(int asyncObserverQueueSize) {
+            this.asyncObserverQueueSize = asyncObserverQueueSize;
+        }
+
+        public boolean isInstrumentationEnabled() {
+            return this.instrumentation;
+        }
+
+        public void setInstrumentationEnabled(boolean instrumentation) {
+            this.instrumentation = instrumentation;
+        }
+    }
+
+    @ConfigSerializable
+    public static class SchedulerCategory extends Category {
+
+        @Setting(value = SCHEDULER_ASYNC_CORE_THREADS, comment = "Number of threads that are always kept to run async tasks")
+        private int asyncCoreThreads = 0;
+        @Setting(value = SCHEDULER_ASYNC_MAX_THREADS,
+                comment = "Max number of threads used to run async tasks, 0 for no limit. With a queue, additional threads are only "
+                        + "started once the queue is full")
+        private int asyncMaxThreads = 0;
+        @Setting(value = SCHEDULER_ASYNC_QUEUE_SIZE,
+                comment = "Max number of async tasks waiting for a free thread. 0 starts a new thread for every task while all threads "
+                        + "are busy, set a queue size and max threads to bound the pool")
+        private int asyncQueueSize = 0;
+        @Setting(value = SCHEDULER_ASYNC_REJECTION_POLICY,
+                comment = "What to do with async tasks when all threads are busy and the queue is full. 'caller-runs' runs them on the "
+                        + "scheduler thread, 'discard' drops them and 'abort' drops them and logs an error")
+        private String asyncRejectionPolicy = "caller-runs";
+        @Setting(value = SCHEDULER_SYNC_TICK_BUDGET,
+                comment = "Milliseconds the sync tasks of a tick may take before the tasks of deferrable plugins are moved to the next "
+                        + "tick, 0 to disable")
+        private double syncTickBudget = 0;
+        @Setting(value = SCHEDULER_SYNC_DEFERRABLE_PLUGINS,
+                comment = "Ids of the plugins whose sync tasks may be moved to the next tick when the tick budget is used up")
+        private List<String> syncDeferrablePlugins = new ArrayList<String>();
+
+        public int getAsyncCoreThreads() {
+            return Math.max(0, this.asyncCoreThreads);
+        }
+
+        public void setAsyncCoreThreads(int asyncCoreThreads) {
+            this.asyncCoreThreads = asyncCoreThreads;
+        }
+
+        public int getAsyncMaxThreads() {
+            if (this.asyncMaxThreads <= 0) {
+                return Integer.MAX_VALUE;
+            }
+            return Math.max(Math.max(1, getAsyncCoreThreads()), this.asyncMaxThreads);
+        }
+
+        public void setAsyncMaxThreads(int asyncMaxThreads) {
+            this.asyncMaxThreads = asyncMaxThreads;
+        }
+
+        public int getAsyncQueueSize() {
+            return Math.max(0, this.asyncQueueSize);
+        }
+
+        public void setAsyncQueueSize(int asyncQueueSize) {
+            this.asyncQueueSize = asyncQueueSize;
+        }
+
+        public String getAsyncRejectionPolicy() {
+            return this.asyncRejectionPolicy;
+        }
+
+        public void setAsyncRejectionPolicy(String asyncRejectionPolicy) {
+            this.asyncRejectionPolicy = asyncRejectionPolicy;
+        }
+
+        public double getSyncTickBudget() {
+            return this.syncTickBudget;
+        }
+
+        public void setSyncTickBudget(double syncTickBudget) {
+            this.syncTickBudget = syncTickBudget;
+        }
+
+        public List<String> getSyncDeferrablePlugins() {
+            return this.syncDeferrablePlugins;
+        }
+    }
+
     @ConfigSerializable
     public static class DebugCategory extends Category {
 
@@ -793,6 +935,20 @@ public static class WorldCategory extends Category {
         private boolean infiniteWaterSource = false;
         @Setting(value = WORLD_FLOWING_LAVA_DECAY, comment = "Lava behaves like vanilla water when source block is removed")
         private boolean flowingLavaDecay = false;
+        @Setting(value = WORLD_PARALLEL_GENERATION,
+                comment = "Generate chunks of custom world generators on multiple threads ahead of time. Only enable this if all generator "
+                        + "populators of the world are thread safe. Has no effect if the biome generator or a generator populator "
+                        + "wraps a vanilla generator")
+        private boolean parallelGeneration = false;
+        @Setting(value = WORLD_PARALLEL_GENERATION_QUEUE_SIZE, comment = "Max number of chunks being generated ahead of time")
+        private int parallelGenerationQueueSize = 256;
+        @Setting(value = WORLD_MOVEMENT_EVENT_DISTANCE, comment = "Min distance in blocks a player has to move to fire a move event")
+        private double movementEventDistance = 1d / 16;
+        @Setting(value = WORLD_MOVEMENT_EVENT_ANGLE, comment = "Min angle in degrees a player has to turn to fire a move event")
+        private double movementEventAngle = 0.15;
+        @Setting(value = WORLD_MOVEMENT_EVENT_BLOCK_CHANGES_ONLY,
+                comment = "Only fire move events when a player moves into another block, turning does not fire them")
+        private boolean movementEventBlockChangesOnly = false;
 
         public boolean hasInfiniteWaterSource() {
             return this.infiniteWaterSource;
@@ -809,6 +965,46 @@ public boolean hasFlowingLavaDecay() {
         public void setFlowingLavaDecay(boolean flowingLavaDecay) {
             this.flowingLavaDecay = flowingLavaDecay;
         }
+
+        public boolean isParallelGenerationEnabled() {
+            return this.parallelGeneration;
+        }
+
+        public void setParallelGenerationEnabled(boolean parallelGeneration) {
+            this.parallelGeneration = parallelGeneration;
+        }
+
+        public int getParallelGenerationQueueSize() {
+            return Math.max(1, this.parallelGenerationQueueSize);
+        }
+
+        public void setParallelGenerationQueueSize(int parallelGenerationQueueSize) {
+            this.parallelGenerationQueueSize = parallelGenerationQueueSize;
+        }
+
+        public double getMovementEventDistance() {
+            return this.movementEventDistance;
+        }
+
+        public void setMovementEventDistance(double movementEventDistance) {
+            this.movementEventDistance = movementEventDistance;
+        }
+
+        public double getMovementEventAngle() {
+            return this.movementEventAngle;
+        }
+
+        public void setMovementEventAngle(double movementEventAngle) {
+            this.movementEventAngle = movementEventAngle;
+        }
+
+        public boolean isMovementEventBlockChangesOnly() {
+            return this.movementEventBlockChangesOnly;
+        }
+
+        public void setMovementEventBlockChangesOnly(boolean movementEventBlockChangesOnly) {
+            this.movementEventBlockChangesOnly = movementEventBlockChangesOnly;
+        }
     }
 
     @ConfigSerializable
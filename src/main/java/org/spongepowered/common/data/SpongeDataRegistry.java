@@ -47,11 +47,14 @@
 
 import java.lang.reflect.Modifier;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import javax.annotation.Nullable;
+
 @SuppressWarnings("unchecked")
 public final class SpongeDataRegistry implements DataManipulatorRegistry {
 
@@ -94,6 +97,25 @@ public final class SpongeDataRegistry implements DataManipulatorRegistry {
     private final Map<Class<? extends DataManipulator<?, ?>>, Class<? extends DataManipulator<?, ?>>> interfaceToImplDataManipulatorClasses =
         new MapMaker().concurrencyLevel(4).makeMap();
 
+    // Lookups after registration has been finalized. Classes resolve their
+    // delegate through a class value, which the JVM caches on the class itself.
+    private final ClassValue<DataProcessorDelegate<?, ?>> dataProcessorsByClass = new ClassValue<DataProcessorDelegate<?, ?>>() {
+
+        @Override
+        protected DataProcessorDelegate<?, ?> computeValue(Class<?> type) {
+            return SpongeDataRegistry.this.dataProcessorDelegates.get(type);
+        }
+    };
+    private final ClassValue<DataProcessorDelegate<?, ?>> immutableDataProcessorsByClass = new ClassValue<DataProcessorDelegate<?, ?>>() {
+
+        @Override
+        protected DataProcessorDelegate<?, ?> computeValue(Class<?> type) {
+            return SpongeDataRegistry.this.immutableDataProcessorDelegates.get(type);
+        }
+    };
+    private final Map<Key<?>, ValueProcessorDelegate<?, ?>> valueDelegatesByIdentity = new IdentityHashMap<Key<?>, ValueProcessorDelegate<?, ?>>();
+    private volatile boolean frozen;
+
     private static boolean allowRegistrations = true;
 
     private SpongeDataRegistry() {
@@ -150,7 +172,53 @@ public static void finalizeRegistration() {
             registry.immutableDataProcessorDelegates.put(entry.getKey(), delegate);
         });
         registry.immutableProcessorMap.clear();
+        registry.valueDelegatesByIdentity.putAll(registry.valueDelegates);
+        registry.frozen = true;
+    }
 
+    /**
+     * Gets the {@link DataProcessorDelegate} for the provided
+     * {@link DataManipulator} class, without wrapping it in an
+     * {@link Optional}.
+     *
+     * @param mutableClass The class of the data manipulator
+     * @return The data processor, or null if there is none
+     */
+    @Nullable
+    public DataProcessorDelegate<?, ?> getDataProcessorDelegate(Class<?> mutableClass) {
+        return this.frozen ? this.dataProcessorsByClass.get(mutableClass) : this.dataProcessorDelegates.get(mutableClass);
+    }
+
+    /**
+     * Gets the {@link DataProcessorDelegate} for the provided
+     * {@link ImmutableDataManipulator} class, without wrapping it in an
+     * {@link Optional}.
+     *
+     * @param immutableClass The class of the immutable data manipulator
+     * @return The data processor, or null if there is none
+     */
+    @Nullable
+    public DataProcessorDelegate<?, ?> getImmutableDataProcessorDelegate(Class<?> immutableClass) {
+        return this.frozen ? this.immutableDataProcessorsByClass.get(immutableClass) : this.immutableDataProcessorDelegates.get(immutableClass);
+    }
+
+    /**
+     * Gets the {@link ValueProcessorDelegate} for the provided {@link Key},
+     * without wrapping it in an {@link Optional}.
+     *
+     * @param key The key
+     * @return The value processor, or null if there is none
+     */
+    @Nullable
+    public ValueProcessorDelegate<?, ?> getValueProcessorDelegate(Key<?> key) {
+        if (this.frozen) {
+            // Keys are constants, so they are almost always found by identity
+            ValueProcessorDelegate<?, ?> delegate = this.valueDelegatesByIdentity.get(key);
+            if (delegate != null) {
+                return delegate;
+            }
+        }
+        return this.valueDelegates.get(key);
     }
 
 
@@ -240,7 +308,7 @@ public <T extends DataManipulator<T, I>, I extends ImmutableDataManipulator<I, T
      */
     public <T extends DataManipulator<T, I>, I extends ImmutableDataManipulator<I, T>> Optional<DataProcessor<T, I>> getProcessor(
         Class<T> mutableClass) {
-        return Optional.ofNullable((DataProcessor<T, I>) this.dataProcessorDelegates.get(checkNotNull(mutableClass)));
+        return Optional.ofNullable((DataProcessor<T, I>) getDataProcessorDelegate(checkNotNull(mutableClass)));
     }
 
     /**
@@ -252,7 +320,7 @@ public <T extends DataManipulator<T, I>, I extends ImmutableDataManipulator<I, T
      * @return The data processor
      */
     public Optional<DataProcessor<?, ?>> getWildProcessor(Class<? extends DataManipulator<?, ?>> mutableClass) {
-        return Optional.<DataProcessor<?, ?>>ofNullable(this.dataProcessorDelegates.get(checkNotNull(mutableClass)));
+        return Optional.<DataProcessor<?, ?>>ofNullable(getDataProcessorDelegate(checkNotNull(mutableClass)));
     }
 
     /**
@@ -263,7 +331,7 @@ public <T extends DataManipulator<T, I>, I extends ImmutableDataManipulator<I, T
      */
     @SuppressWarnings("rawtypes")
     public Optional<DataProcessor> getWildDataProcessor(Class<? extends DataManipulator> class1) {
-        return Optional.<DataProcessor>ofNullable(this.dataProcessorDelegates.get(checkNotNull(class1)));
+        return Optional.<DataProcessor>ofNullable(getDataProcessorDelegate(checkNotNull(class1)));
     }
 
     /**
@@ -277,7 +345,7 @@ public Optional<DataProcessor> getWildDataProcessor(Class<? extends DataManipula
      */
     public <T extends DataManipulator<T, I>, I extends ImmutableDataManipulator<I, T>> Optional<DataProcessor<T, I>>
         getImmutableProcessor(Class<I> immutableClass) {
-        return Optional.ofNullable((DataProcessor<T, I>) this.immutableDataProcessorDelegates.get(checkNotNull(immutableClass)));
+        return Optional.ofNullable((DataProcessor<T, I>) getImmutableDataProcessorDelegate(checkNotNull(immutableClass)));
     }
 
     /**
@@ -289,7 +357,7 @@ public Optional<DataProcessor> getWildDataProcessor(Class<? extends DataManipula
      */
     @SuppressWarnings("rawtypes")
     public Optional<DataProcessor> getWildImmutableProcessor(Class<? extends ImmutableDataManipulator<?, ?>> immutableClass) {
-        return Optional.<DataProcessor>ofNullable(this.immutableDataProcessorDelegates.get(checkNotNull(immutableClass)));
+        return Optional.<DataProcessor>ofNullable(getImmutableDataProcessorDelegate(checkNotNull(immutableClass)));
     }
 
 
@@ -308,17 +376,16 @@ public <E, V extends BaseValue<E>> void registerValueProcessor(Key<V> key, Value
     }
 
     public <E, V extends BaseValue<E>> Optional<ValueProcessor<E, V>> getValueProcessor(Key<V> key) {
-        return Optional.ofNullable((ValueProcessor<E, V>) this.valueDelegates.get(key));
+        return Optional.ofNullable((ValueProcessor<E, V>) getValueProcessorDelegate(key));
     }
 
     public Optional<ValueProcessor<?, ?>> getWildValueProcessor(Key<?> key) {
-        return Optional.<ValueProcessor<?, ?>>ofNullable(this.valueDelegates.get(key));
+        return Optional.<ValueProcessor<?, ?>>ofNullable(getValueProcessorDelegate(key));
     }
 
     public <E> Optional<ValueProcessor<E, ? extends BaseValue<E>>> getBaseValueProcessor(Key<? extends BaseValue<E>> key) {
         return Optional.<ValueProcessor<E, ? extends BaseValue<E>>>ofNullable(
-                (ValueProcessor<E, ? extends BaseValue<E>>) this.valueDelegates.get
-                        (key));
+                (ValueProcessor<E, ? extends BaseValue<E>>) getValueProcessorDelegate(key));
     }
 
 }
@@ -41,10 +41,12 @@
 
 public final class DataProcessorDelegate<M extends DataManipulator<M, I>, I extends ImmutableDataManipulator<I, M>> implements DataProcessor<M, I> {
 
-    private final ImmutableList<DataProcessor<M, I>> processors;
+    // An array rather than the list, so the hot loops below don't allocate iterators
+    private final DataProcessor<M, I>[] processors;
 
+    @SuppressWarnings("unchecked")
     public DataProcessorDelegate(ImmutableList<DataProcessor<M, I>> processors) {
-        this.processors = processors;
+        this.processors = processors.toArray(new DataProcessor[processors.size()]);
     }
 
     @Override
@@ -26,6 +26,10 @@
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import gnu.trove.iterator.TIntIntIterator;
+import gnu.trove.iterator.TShortIntIterator;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TShortIntHashMap;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
@@ -94,7 +98,10 @@ public class NbtDataUtil {
     public static final String SPONGE_DATA = "SpongeData";
     public static final String SPONGE_ENTITY_CREATOR = "Creator";
     public static final String SPONGE_BLOCK_POS_TABLE = "BlockPosTable";
+    public static final String SPONGE_BLOCK_POS_OWNERS = "BlockPosOwners";
+    public static final String SPONGE_BLOCK_POS_INT_OWNERS = "BlockPosIntOwners";
     public static final String SPONGE_PLAYER_UUID_TABLE = "PlayerIdTable";
+    public static final String SPONGE_PREGENERATION = "Pregeneration";
     public static final String CUSTOM_MANIPULATOR_TAG_LIST = "CustomManipulators";
 
     // Compatibility tags for Forge
@@ -160,6 +167,80 @@ public static NBTTagCompound getOrCreateSubCompound(NBTTagCompound mainCompound,
         return mainCompound.getCompoundTag(key);
     }
 
+    /**
+     * Writes the owners of the tracked block positions of a chunk, as
+     * interleaved position and owner index pairs.
+     *
+     * @param shortPositions The owner indices by short packed position
+     * @param intPositions The owner indices by int packed position
+     * @param spongeData The sponge data compound of the chunk
+     */
+    public static void writeTrackedBlockOwners(TShortIntHashMap shortPositions, TIntIntHashMap intPositions, NBTTagCompound spongeData) {
+        if (shortPositions.size() > 0) {
+            int[] owners = new int[shortPositions.size() * 2];
+            int i = 0;
+            for (TShortIntIterator iterator = shortPositions.iterator(); iterator.hasNext();) {
+                iterator.advance();
+                owners[i++] = iterator.key();
+                owners[i++] = iterator.value();
+            }
+            spongeData.setIntArray(SPONGE_BLOCK_POS_OWNERS, owners);
+        }
+
+        if (intPositions.size() > 0) {
+            int[] owners = new int[intPositions.size() * 2];
+            int i = 0;
+            for (TIntIntIterator iterator = intPositions.iterator(); iterator.hasNext();) {
+                iterator.advance();
+                owners[i++] = iterator.key();
+                owners[i++] = iterator.value();
+            }
+            spongeData.setIntArray(SPONGE_BLOCK_POS_INT_OWNERS, owners);
+        }
+    }
+
+    /**
+     * Reads the owners of the tracked block positions of a chunk, written
+     * either by {@link #writeTrackedBlockOwners} or in the older format with
+     * one compound per position.
+     *
+     * @param spongeData The sponge data compound of the chunk
+     * @param shortPositions The owner indices by short packed position
+     * @param intPositions The owner indices by int packed position
+     */
+    public static void readTrackedBlockOwners(NBTTagCompound spongeData, TShortIntHashMap shortPositions, TIntIntHashMap intPositions) {
+        if (spongeData.hasKey(SPONGE_BLOCK_POS_OWNERS, TAG_INT_ARRAY)) {
+            int[] owners = spongeData.getIntArray(SPONGE_BLOCK_POS_OWNERS);
+            shortPositions.ensureCapacity(owners.length / 2);
+            for (int i = 0; i + 1 < owners.length; i += 2) {
+                shortPositions.put((short) owners[i], owners[i + 1]);
+            }
+        }
+
+        if (spongeData.hasKey(SPONGE_BLOCK_POS_INT_OWNERS, TAG_INT_ARRAY)) {
+            int[] owners = spongeData.getIntArray(SPONGE_BLOCK_POS_INT_OWNERS);
+            intPositions.ensureCapacity(owners.length / 2);
+            for (int i = 0; i + 1 < owners.length; i += 2) {
+                intPositions.put(owners[i], owners[i + 1]);
+            }
+        }
+
+        // Chunks saved before the packed format store one compound per position, they are
+        // migrated the next time the chunk is saved
+        if (spongeData.hasKey(SPONGE_BLOCK_POS_TABLE, TAG_LIST)) {
+            NBTTagList positions = spongeData.getTagList(SPONGE_BLOCK_POS_TABLE, TAG_COMPOUND);
+            shortPositions.ensureCapacity(positions.tagCount());
+            for (int i = 0; i < positions.tagCount(); i++) {
+                NBTTagCompound valueNbt = positions.getCompoundTagAt(i);
+                if (valueNbt.hasKey("pos")) {
+                    shortPositions.put(valueNbt.getShort("pos"), valueNbt.getInteger("uuid"));
+                } else {
+                    intPositions.put(valueNbt.getInteger("ipos"), valueNbt.getInteger("uuid"));
+                }
+            }
+        }
+    }
+
     public static NBTTagCompound filterSpongeCustomData(NBTTagCompound rootCompound) {
         if (rootCompound.hasKey(FORGE_DATA_TAG, TAG_COMPOUND)) {
             final NBTTagCompound forgeCompound = rootCompound.getCompoundTag(FORGE_DATA_TAG);
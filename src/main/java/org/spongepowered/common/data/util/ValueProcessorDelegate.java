@@ -44,11 +44,13 @@
 public final class ValueProcessorDelegate<E, V extends BaseValue<E>> implements ValueProcessor<E, V> {
 
     private final Key<V> key;
-    private final ImmutableList<ValueProcessor<E, V>> processors;
+    // Iterated on every value access, kept as a plain array
+    private final ValueProcessor<E, V>[] processors;
 
+    @SuppressWarnings("unchecked")
     public ValueProcessorDelegate(Key<V> key, ImmutableList<ValueProcessor<E, V>> processors) {
         this.key = key;
-        this.processors = processors;
+        this.processors = processors.toArray(new ValueProcessor[processors.size()]);
     }
 
     @Override
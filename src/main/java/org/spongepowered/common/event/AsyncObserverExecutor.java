@@ -0,0 +1,180 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.Sponge;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers events to async observers after all synchronous listeners have
+ * been called.
+ *
+ * <p>The only backpressure is dropping per plugin. The deliveries of all
+ * plugins share one executor queue, but each plugin may only have a limited
+ * number of them pending. Further deliveries to that plugin's observers are
+ * dropped and counted instead of blocking the posting thread, so the shared
+ * queue holds at most that limit times the number of plugins.</p>
+ *
+ * <p>Observers receive an {@link ImmutableEventCopy} of the event instead of
+ * the event itself, since the posting thread keeps using the event after
+ * the observers were submitted.</p>
+ */
+public final class AsyncObserverExecutor {
+
+    private final ExecutorService executor;
+    private final int queueCapacity;
+    private final ConcurrentMap<PluginContainer, PluginQueue> queues = Maps.newConcurrentMap();
+
+    public AsyncObserverExecutor(int threads, int queueCapacity) {
+        checkArgument(threads > 0, "threads must be positive");
+        checkArgument(queueCapacity > 0, "queueCapacity must be positive");
+        this.queueCapacity = queueCapacity;
+        this.executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+                .setNameFormat("Sponge Async Observer #%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    /**
+     * Submits the event to the given observers. Must be called on the thread
+     * that posted the event, as the transactions and other collections of the
+     * event are copied here.
+     *
+     * @param event The event
+     * @param observers The observers to call
+     */
+    public void submit(Event event, List<RegisteredListener<?>> observers) {
+        Event copy = ImmutableEventCopy.of(event);
+        for (RegisteredListener<?> observer : observers) {
+            submit(copy, observer);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void submit(Event event, RegisteredListener observer) {
+        PluginQueue queue = getQueue(observer.getPlugin());
+        if (queue.depth.incrementAndGet() > this.queueCapacity) {
+            queue.depth.decrementAndGet();
+            queue.dropped.increment();
+            return;
+        }
+
+        try {
+            this.executor.execute(() -> {
+                try {
+                    observer.handle(event);
+                } catch (Throwable e) {
+                    Sponge.getLogger().error("Could not pass {} to async observer of {}", event, observer.getPlugin(), e);
+                } finally {
+                    queue.depth.decrementAndGet();
+                    queue.completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shut down while the event was posted
+            queue.depth.decrementAndGet();
+            queue.dropped.increment();
+        }
+    }
+
+    private PluginQueue getQueue(PluginContainer plugin) {
+        PluginQueue queue = this.queues.get(plugin);
+        if (queue == null) {
+            queue = this.queues.computeIfAbsent(plugin, key -> new PluginQueue());
+        }
+        return queue;
+    }
+
+    /**
+     * Gets the current queue statistics of all plugins with async observers.
+     *
+     * @return The queue statistics by plugin
+     */
+    public Map<PluginContainer, QueueStats> getQueueStats() {
+        ImmutableMap.Builder<PluginContainer, QueueStats> builder = ImmutableMap.builder();
+        for (Map.Entry<PluginContainer, PluginQueue> entry : this.queues.entrySet()) {
+            PluginQueue queue = entry.getValue();
+            builder.put(entry.getKey(), new QueueStats(queue.depth.get(), queue.completed.sum(), queue.dropped.sum()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Stops accepting events. Deliveries that were already queued still run.
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    private static final class PluginQueue {
+
+        final AtomicInteger depth = new AtomicInteger();
+        final LongAdder completed = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+
+    }
+
+    public static final class QueueStats {
+
+        private final int depth;
+        private final long completed;
+        private final long dropped;
+
+        QueueStats(int depth, long completed, long dropped) {
+            this.depth = depth;
+            this.completed = completed;
+            this.dropped = dropped;
+        }
+
+        public int getDepth() {
+            return this.depth;
+        }
+
+        public long getCompleted() {
+            return this.completed;
+        }
+
+        public long getDropped() {
+            return this.dropped;
+        }
+
+    }
+
+}
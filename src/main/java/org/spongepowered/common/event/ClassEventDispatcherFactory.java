@@ -0,0 +1,247 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.objectweb.asm.Opcodes.AALOAD;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.BIPUSH;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.ICONST_0;
+import static org.objectweb.asm.Opcodes.IFEQ;
+import static org.objectweb.asm.Opcodes.IFNE;
+import static org.objectweb.asm.Opcodes.ILOAD;
+import static org.objectweb.asm.Opcodes.INSTANCEOF;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.IRETURN;
+import static org.objectweb.asm.Opcodes.ISTORE;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.SIPUSH;
+import static org.objectweb.asm.Opcodes.V1_6;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import org.spongepowered.api.event.Cancellable;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.EventListener;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates an {@link EventDispatcher} for a chain of listeners, calling each
+ * listener directly with its cancellation check inlined.
+ *
+ * <p>Generated classes only depend on which listeners ignore cancelled events,
+ * so they are shared between all chains with the same shape.</p>
+ */
+public final class ClassEventDispatcherFactory implements EventDispatcher.Factory {
+
+    private final AtomicInteger id = new AtomicInteger();
+    private final LocalClassLoader classLoader = new LocalClassLoader(getClass().getClassLoader());
+    private final LoadingCache<String, Constructor<? extends EventDispatcher>> cache = CacheBuilder.newBuilder()
+            .concurrencyLevel(1)
+            .build(new CacheLoader<String, Constructor<? extends EventDispatcher>>() {
+
+                @Override
+                public Constructor<? extends EventDispatcher> load(String shape) throws Exception {
+                    return createClass(shape).getConstructor(RegisteredListener[].class);
+                }
+            });
+
+    private final String targetPackage;
+
+    public ClassEventDispatcherFactory(String targetPackage) {
+        checkNotNull(targetPackage, "targetPackage");
+        checkArgument(!targetPackage.isEmpty(), "targetPackage cannot be empty");
+        this.targetPackage = targetPackage + '.';
+    }
+
+    @Override
+    public EventDispatcher create(List<RegisteredListener<?>> listeners) throws Exception {
+        if (listeners.isEmpty()) {
+            return EventDispatcher.EMPTY;
+        }
+
+        RegisteredListener<?>[] array = listeners.toArray(new RegisteredListener<?>[listeners.size()]);
+        return this.cache.get(getShape(array)).newInstance((Object) array);
+    }
+
+    private static String getShape(RegisteredListener<?>[] listeners) {
+        char[] shape = new char[listeners.length];
+        for (int i = 0; i < listeners.length; i++) {
+            shape[i] = listeners[i].isIgnoreCancelled() ? '1' : '0';
+        }
+        return new String(shape);
+    }
+
+    private Class<? extends EventDispatcher> createClass(String shape) {
+        String name = this.targetPackage + "EventDispatcher_" + shape.length() + '_' + this.id.incrementAndGet();
+        return this.classLoader.defineClass(name, generateClass(name, shape));
+    }
+
+    private static final String BASE_DISPATCHER = Type.getInternalName(EventDispatcher.class);
+    private static final String LISTENER_ARRAY_DESCRIPTOR = Type.getDescriptor(RegisteredListener[].class);
+    private static final String REGISTERED_LISTENER = Type.getInternalName(RegisteredListener.class);
+    private static final String EVENT_LISTENER = Type.getInternalName(EventListener.class);
+    private static final String EVENT_LISTENER_DESCRIPTOR = Type.getDescriptor(EventListener.class);
+    private static final String EVENT_DESCRIPTOR = Type.getDescriptor(Event.class);
+    private static final String CANCELLABLE = Type.getInternalName(Cancellable.class);
+
+    private static byte[] generateClass(String name, String shape) {
+        name = name.replace('.', '/');
+        final int size = shape.length();
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        MethodVisitor mv;
+
+        cw.visit(V1_6, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, name, null, BASE_DISPATCHER, null);
+
+        for (int i = 0; i < size; i++) {
+            cw.visitField(ACC_PRIVATE + ACC_FINAL, "listener" + i, EVENT_LISTENER_DESCRIPTOR, null, null).visitEnd();
+        }
+
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "<init>", '(' + LISTENER_ARRAY_DESCRIPTOR + ")V", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKESPECIAL, BASE_DISPATCHER, "<init>", '(' + LISTENER_ARRAY_DESCRIPTOR + ")V", false);
+            for (int i = 0; i < size; i++) {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, 1);
+                pushInt(mv, i);
+                mv.visitInsn(AALOAD);
+                mv.visitMethodInsn(INVOKEVIRTUAL, REGISTERED_LISTENER, "getListener", "()" + EVENT_LISTENER_DESCRIPTOR, false);
+                mv.visitFieldInsn(PUTFIELD, name, "listener" + i, EVENT_LISTENER_DESCRIPTOR);
+            }
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        {
+            // Local variables: 0 = this, 1 = event, 2 = event instanceof Cancellable, 3 = caught exception
+            mv = cw.visitMethod(ACC_PUBLIC, "dispatch", '(' + EVENT_DESCRIPTOR + ")Z", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(INSTANCEOF, CANCELLABLE);
+            mv.visitVarInsn(ISTORE, 2);
+
+            for (int i = 0; i < size; i++) {
+                Label start = new Label();
+                Label end = new Label();
+                Label handler = new Label();
+                Label next = new Label();
+                mv.visitTryCatchBlock(start, end, handler, "java/lang/Throwable");
+
+                if (shape.charAt(i) == '1') {
+                    mv.visitVarInsn(ILOAD, 2);
+                    mv.visitJumpInsn(IFEQ, start);
+                    mv.visitVarInsn(ALOAD, 1);
+                    mv.visitTypeInsn(CHECKCAST, CANCELLABLE);
+                    mv.visitMethodInsn(INVOKEINTERFACE, CANCELLABLE, "isCancelled", "()Z", true);
+                    mv.visitJumpInsn(IFNE, next);
+                }
+
+                mv.visitLabel(start);
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, name, "listener" + i, EVENT_LISTENER_DESCRIPTOR);
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitMethodInsn(INVOKEINTERFACE, EVENT_LISTENER, "handle", '(' + EVENT_DESCRIPTOR + ")V", true);
+                mv.visitLabel(end);
+                mv.visitJumpInsn(GOTO, next);
+
+                mv.visitLabel(handler);
+                mv.visitVarInsn(ASTORE, 3);
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, 1);
+                pushInt(mv, i);
+                mv.visitVarInsn(ALOAD, 3);
+                mv.visitMethodInsn(INVOKEVIRTUAL, BASE_DISPATCHER, "handleException", '(' + EVENT_DESCRIPTOR + "ILjava/lang/Throwable;)V", false);
+
+                mv.visitLabel(next);
+            }
+
+            Label notCancelled = new Label();
+            mv.visitVarInsn(ILOAD, 2);
+            mv.visitJumpInsn(IFEQ, notCancelled);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, CANCELLABLE);
+            mv.visitMethodInsn(INVOKEINTERFACE, CANCELLABLE, "isCancelled", "()Z", true);
+            mv.visitInsn(IRETURN);
+            mv.visitLabel(notCancelled);
+            mv.visitInsn(ICONST_0);
+            mv.visitInsn(IRETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, value);
+        } else if (value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    private static class LocalClassLoader extends ClassLoader {
+
+        private LocalClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> Class<T> defineClass(String name, byte[] b) {
+            return (Class<T>) defineClass(name, b, 0, b.length);
+        }
+
+    }
+
+}
@@ -0,0 +1,220 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import org.spongepowered.api.event.Cancellable;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.Sponge;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+/**
+ * Opt-in instrumentation of the listeners called by the
+ * {@link SpongeEventManager}, recording invocation count, time spent, latency
+ * distribution and allocated bytes for each {@link RegisteredListener}.
+ */
+public final class EventInstrumentation {
+
+    @Nullable private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = getAllocationBean();
+
+    private final ConcurrentMap<RegisteredListener<?>, ListenerStats> stats = Maps.newConcurrentMap();
+    private volatile boolean enabled;
+
+    @Nullable
+    private static com.sun.management.ThreadMXBean getAllocationBean() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+                ((com.sun.management.ThreadMXBean) bean).setThreadAllocatedMemoryEnabled(true);
+                return (com.sun.management.ThreadMXBean) bean;
+            }
+        } catch (Throwable ignored) {
+            // Not available on this JVM
+        }
+        return null;
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isAllocationTrackingSupported() {
+        return ALLOCATION_BEAN != null;
+    }
+
+    public void reset() {
+        this.stats.clear();
+    }
+
+    /**
+     * Gets the statistics recorded for all listeners, ordered by the total
+     * time spent in them.
+     *
+     * @return The recorded listener statistics
+     */
+    public List<ListenerStats> getStats() {
+        return ImmutableList.copyOf(this.stats.values().stream()
+                .sorted((a, b) -> Long.compare(b.getTotalNanos(), a.getTotalNanos()))
+                .iterator());
+    }
+
+    private ListenerStats getStats(RegisteredListener<?> listener) {
+        ListenerStats stats = this.stats.get(listener);
+        if (stats == null) {
+            stats = this.stats.computeIfAbsent(listener, ListenerStats::new);
+        }
+        return stats;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    boolean dispatch(Event event, List<RegisteredListener<?>> listeners) {
+        final long threadId = Thread.currentThread().getId();
+        for (RegisteredListener listener : listeners) {
+            long allocated = ALLOCATION_BEAN != null ? ALLOCATION_BEAN.getThreadAllocatedBytes(threadId) : 0;
+            long start = System.nanoTime();
+            try {
+                listener.handle(event);
+            } catch (Throwable e) {
+                Sponge.getLogger().error("Could not pass {} to {}", event.getClass().getSimpleName(), listener.getPlugin(), e);
+            }
+            long nanos = System.nanoTime() - start;
+            if (ALLOCATION_BEAN != null) {
+                allocated = ALLOCATION_BEAN.getThreadAllocatedBytes(threadId) - allocated;
+            }
+            getStats(listener).record(nanos, allocated);
+        }
+
+        return event instanceof Cancellable && ((Cancellable) event).isCancelled();
+    }
+
+    public static final class ListenerStats {
+
+        // Four sub-buckets for each power of two, bucket error is below 25%
+        private static final int SUB_BUCKET_BITS = 2;
+        private static final int BUCKETS = 64 << SUB_BUCKET_BITS;
+
+        private final RegisteredListener<?> listener;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        ListenerStats(RegisteredListener<?> listener) {
+            this.listener = listener;
+        }
+
+        void record(long nanos, long allocated) {
+            this.invocations.increment();
+            this.totalNanos.add(nanos);
+            this.allocatedBytes.add(allocated);
+            this.histogram.incrementAndGet(getBucket(nanos));
+        }
+
+        private static int getBucket(long nanos) {
+            if (nanos < (1 << SUB_BUCKET_BITS)) {
+                return (int) Math.max(nanos, 0);
+            }
+            int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+            int subBucket = (int) (nanos >>> (magnitude - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+            return (magnitude << SUB_BUCKET_BITS) | subBucket;
+        }
+
+        private static long getBucketUpperBound(int bucket) {
+            int magnitude = bucket >>> SUB_BUCKET_BITS;
+            if (magnitude < SUB_BUCKET_BITS) {
+                return bucket;
+            }
+            long subBucket = bucket & ((1 << SUB_BUCKET_BITS) - 1);
+            return ((1L << SUB_BUCKET_BITS | subBucket) + 1 << (magnitude - SUB_BUCKET_BITS)) - 1;
+        }
+
+        public RegisteredListener<?> getListener() {
+            return this.listener;
+        }
+
+        public PluginContainer getPlugin() {
+            return this.listener.getPlugin();
+        }
+
+        public Class<? extends Event> getEventClass() {
+            return this.listener.getEventClass();
+        }
+
+        public long getInvocations() {
+            return this.invocations.sum();
+        }
+
+        public long getTotalNanos() {
+            return this.totalNanos.sum();
+        }
+
+        public long getAllocatedBytes() {
+            return this.allocatedBytes.sum();
+        }
+
+        /**
+         * Gets an approximation of the latency below which the given fraction
+         * of all invocations completed.
+         *
+         * @param percentile The percentile, between 0 and 1
+         * @return The latency in nanoseconds
+         */
+        public long getPercentileNanos(double percentile) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = this.histogram.get(i);
+                total += counts[i];
+            }
+
+            long threshold = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= threshold && seen > 0) {
+                    return getBucketUpperBound(i);
+                }
+            }
+            return 0;
+        }
+
+    }
+
+}
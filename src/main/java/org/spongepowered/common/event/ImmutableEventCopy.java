@@ -0,0 +1,267 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.reflect.TypeToken;
+import org.spongepowered.api.data.Transaction;
+import org.spongepowered.api.event.Event;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * A read-only view of an event, handed to async observers instead of the
+ * event that is still used by the posting thread.
+ *
+ * <p>Only the getters that return lists, sets, maps or transactions are
+ * called when the view is created, on the posting thread. Their values are
+ * copied, so later changes to the event's transactions are not visible to
+ * the view. All other getters are read from the event when an observer
+ * calls them, as the posting thread no longer changes them once all
+ * listeners were called.</p>
+ *
+ * <p>Default methods run against the view. Methods without a return value
+ * would change the event and throw an {@link UnsupportedOperationException}.
+ * Game objects reachable from the event, like entities and worlds, are not
+ * copied.</p>
+ */
+final class ImmutableEventCopy implements InvocationHandler {
+
+    private static final ClassValue<EventType> EVENT_TYPES = new ClassValue<EventType>() {
+
+        @Override
+        protected EventType computeValue(Class<?> type) {
+            return new EventType(type);
+        }
+    };
+
+    @Nullable private static final Constructor<MethodHandles.Lookup> LOOKUP_CONSTRUCTOR;
+
+    static {
+        Constructor<MethodHandles.Lookup> constructor;
+        try {
+            // The only way to call a default method of a proxied interface on Java 8
+            constructor = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
+            constructor.setAccessible(true);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            constructor = null;
+        }
+        LOOKUP_CONSTRUCTOR = constructor;
+    }
+
+    private final Event event;
+    private final EventType type;
+    private final Map<String, Object> values;
+
+    private ImmutableEventCopy(Event event, EventType type, Map<String, Object> values) {
+        this.event = event;
+        this.type = type;
+        this.values = values;
+    }
+
+    /**
+     * Creates a read-only view of the given event. Must be called on the
+     * thread that posted the event.
+     *
+     * @param event The event to copy
+     * @return The read-only view
+     */
+    static Event of(Event event) {
+        EventType type = EVENT_TYPES.get(event.getClass());
+        Map<String, Object> values = type.copiedGetters.isEmpty() ? Collections.<String, Object>emptyMap() : new HashMap<>();
+        for (Method getter : type.copiedGetters) {
+            Object value;
+            try {
+                value = freeze(getter.invoke(event));
+            } catch (InvocationTargetException e) {
+                value = new Failure(e.getCause());
+            } catch (IllegalAccessException e) {
+                value = new Failure(e);
+            }
+            values.put(getter.getName(), value);
+        }
+        return (Event) Proxy.newProxyInstance(type.classLoader, type.interfaces, new ImmutableEventCopy(event, type, values));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Nullable
+    private static Object freeze(@Nullable Object value) {
+        if (value instanceof Transaction) {
+            Transaction transaction = (Transaction) value;
+            Transaction copy = new Transaction(freeze(transaction.getOriginal()), freeze(transaction.getDefault()));
+            if (transaction.getCustom().isPresent()) {
+                copy.setCustom(freeze(transaction.getCustom().get()));
+            }
+            copy.setValid(transaction.isValid());
+            return copy;
+        } else if (value instanceof List) {
+            List<Object> copy = new ArrayList<>(((List<?>) value).size());
+            for (Object element : (List<?>) value) {
+                copy.add(freeze(element));
+            }
+            return Collections.unmodifiableList(copy);
+        } else if (value instanceof Set) {
+            Set<Object> copy = new LinkedHashSet<>();
+            for (Object element : (Set<?>) value) {
+                copy.add(freeze(element));
+            }
+            return Collections.unmodifiableSet(copy);
+        } else if (value instanceof Map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                copy.put(entry.getKey(), freeze(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(copy);
+        } else if (value instanceof Optional && ((Optional<?>) value).isPresent()) {
+            return Optional.ofNullable(freeze(((Optional<?>) value).get()));
+        }
+        return value;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "ImmutableEventCopy{" + this.event.getClass().getSimpleName() + "}";
+            }
+        }
+        if (method.getParameterCount() == 0 && this.values.containsKey(method.getName())) {
+            Object value = this.values.get(method.getName());
+            if (value instanceof Failure) {
+                throw ((Failure) value).cause;
+            }
+            return value;
+        }
+        if (method.isDefault()) {
+            // Running the default method against the event would let it see
+            // and change the live transactions
+            MethodHandle handle = this.type.defaultMethods.get(method);
+            if (handle != null) {
+                return handle.bindTo(proxy).invokeWithArguments(args == null ? new Object[0] : args);
+            }
+        }
+        if (method.isDefault() || method.getReturnType() == void.class) {
+            throw new UnsupportedOperationException("Async observers cannot call " + method.getName() + " on "
+                    + this.event.getClass().getSimpleName() + ", the event is read-only");
+        }
+        try {
+            return method.invoke(this.event, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class EventType {
+
+        final ClassLoader classLoader;
+        final Class<?>[] interfaces;
+        final List<Method> copiedGetters;
+        final Map<Method, MethodHandle> defaultMethods;
+
+        EventType(Class<?> eventClass) {
+            Set<Class<?>> interfaces = new LinkedHashSet<>();
+            Map<String, Method> copiedGetters = new LinkedHashMap<>();
+            Map<Method, MethodHandle> defaultMethods = new HashMap<>();
+            for (Class<?> type : TypeToken.of(eventClass).getTypes().interfaces().rawTypes()) {
+                if (!Modifier.isPublic(type.getModifiers())) {
+                    continue;
+                }
+                interfaces.add(type);
+                for (Method method : type.getDeclaredMethods()) {
+                    if (Modifier.isStatic(method.getModifiers())) {
+                        continue;
+                    }
+                    if (method.isDefault()) {
+                        MethodHandle handle = unreflectDefault(method);
+                        if (handle != null) {
+                            defaultMethods.put(method, handle);
+                        }
+                    } else if (method.getParameterCount() == 0 && isCopied(method.getReturnType())) {
+                        copiedGetters.putIfAbsent(method.getName(), method);
+                    }
+                }
+            }
+            this.classLoader = eventClass.getClassLoader();
+            this.interfaces = interfaces.toArray(new Class<?>[interfaces.size()]);
+            this.copiedGetters = ImmutableList.copyOf(copiedGetters.values());
+            this.defaultMethods = ImmutableMap.copyOf(defaultMethods);
+        }
+
+        private static boolean isCopied(Class<?> returnType) {
+            return Collection.class.isAssignableFrom(returnType) || Map.class.isAssignableFrom(returnType)
+                    || Transaction.class.isAssignableFrom(returnType);
+        }
+
+        @Nullable
+        private static MethodHandle unreflectDefault(Method method) {
+            if (LOOKUP_CONSTRUCTOR == null) {
+                return null;
+            }
+            Class<?> declaringClass = method.getDeclaringClass();
+            try {
+                return LOOKUP_CONSTRUCTOR.newInstance(declaringClass, MethodHandles.Lookup.PRIVATE).unreflectSpecial(method, declaringClass);
+            } catch (ReflectiveOperationException e) {
+                return null;
+            }
+        }
+
+    }
+
+    private static final class Failure {
+
+        final Throwable cause;
+
+        Failure(Throwable cause) {
+            this.cause = cause;
+        }
+
+    }
+
+}
@@ -48,14 +48,21 @@
 
     private final boolean ignoreCancelled;
     private final boolean beforeModifications;
+    private final boolean asyncObserver;
 
     RegisteredListener(PluginContainer plugin, Class<T> eventClass, Order order, EventListener<? super T> listener, boolean ignoreCancelled, boolean beforeModifications) {
+        this(plugin, eventClass, order, listener, ignoreCancelled, beforeModifications, false);
+    }
+
+    RegisteredListener(PluginContainer plugin, Class<T> eventClass, Order order, EventListener<? super T> listener, boolean ignoreCancelled, boolean beforeModifications,
+            boolean asyncObserver) {
         this.plugin = checkNotNull(plugin, "plugin");
         this.eventClass = checkNotNull(eventClass, "eventClass");
         this.order = checkNotNull(order, "order");
         this.listener = checkNotNull(listener, "listener");
         this.ignoreCancelled = ignoreCancelled;
         this.beforeModifications = beforeModifications;
+        this.asyncObserver = asyncObserver;
     }
 
     public PluginContainer getPlugin() {
@@ -74,6 +81,24 @@ public boolean isBeforeModifications() {
         return this.beforeModifications;
     }
 
+    public boolean isIgnoreCancelled() {
+        return this.ignoreCancelled;
+    }
+
+    /**
+     * Gets whether this listener only observes events asynchronously, after
+     * all synchronous listeners were called.
+     *
+     * @return True if this is an async observer
+     */
+    public boolean isAsyncObserver() {
+        return this.asyncObserver;
+    }
+
+    public EventListener<? super T> getListener() {
+        return this.listener;
+    }
+
     @Override
     public Object getHandle() {
         if (this.listener instanceof SpongeEventListener) {
@@ -101,11 +126,17 @@ public static final class Cache {
 
         private final List<RegisteredListener<?>> listeners;
         private final EnumMap<Order, List<RegisteredListener<?>>> listenersByOrder;
+        private final List<RegisteredListener<?>> asyncObservers;
+
+        private final EventDispatcher dispatcher;
+        private final EnumMap<Order, EventDispatcher> dispatchersByOrder;
 
         private static final Order[] ORDERS = Order.values();
 
-        Cache(List<RegisteredListener<?>> listeners) {
+        Cache(List<RegisteredListener<?>> listeners, List<RegisteredListener<?>> asyncObservers, EventDispatcher.Factory dispatcherFactory)
+                throws Exception {
             this.listeners = listeners;
+            this.asyncObservers = asyncObservers;
 
             this.listenersByOrder = Maps.newEnumMap(Order.class);
             for (Order order : ORDERS) {
@@ -114,6 +145,12 @@ public static final class Cache {
             for (RegisteredListener<?> handler : listeners) {
                 this.listenersByOrder.get(handler.getOrder()).add(handler);
             }
+
+            this.dispatcher = dispatcherFactory.create(listeners);
+            this.dispatchersByOrder = Maps.newEnumMap(Order.class);
+            for (Order order : ORDERS) {
+                this.dispatchersByOrder.put(order, dispatcherFactory.create(this.listenersByOrder.get(order)));
+            }
         }
 
         public List<RegisteredListener<?>> getListeners() {
@@ -124,6 +161,22 @@ public List<RegisteredListener<?>> getListenersByOrder(Order order) {
             return this.listenersByOrder.get(checkNotNull(order, "order"));
         }
 
+        public List<RegisteredListener<?>> getAsyncObservers() {
+            return this.asyncObservers;
+        }
+
+        public boolean hasListeners() {
+            return !this.listeners.isEmpty() || !this.asyncObservers.isEmpty();
+        }
+
+        public EventDispatcher getDispatcher() {
+            return this.dispatcher;
+        }
+
+        public EventDispatcher getDispatcherByOrder(Order order) {
+            return this.dispatchersByOrder.get(checkNotNull(order, "order"));
+        }
+
     }
 
 }
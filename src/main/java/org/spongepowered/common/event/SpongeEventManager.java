@@ -27,12 +27,14 @@
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.base.Throwables;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
 import com.google.common.reflect.TypeToken;
 import org.spongepowered.api.event.Cancellable;
 import org.spongepowered.api.event.Event;
@@ -43,16 +45,22 @@
 import org.spongepowered.api.plugin.PluginManager;
 import org.spongepowered.api.service.event.EventManager;
 import org.spongepowered.common.Sponge;
+import org.spongepowered.common.configuration.SpongeConfig;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -62,24 +70,49 @@ public class SpongeEventManager implements EventManager {
     private final Object lock = new Object();
 
     private final PluginManager pluginManager;
+    @Nullable private volatile AsyncObserverExecutor asyncObserverExecutor;
+    private final EventInstrumentation instrumentation = new EventInstrumentation();
     private final AnnotatedEventListener.Factory handlerFactory = new ClassEventListenerFactory("org.spongepowered.common.event.listener");
+    private final EventDispatcher.Factory dispatcherFactory = new ClassEventDispatcherFactory("org.spongepowered.common.event.dispatcher");
     private final Multimap<Class<?>, RegisteredListener<?>> handlersByEvent = HashMultimap.create();
 
+    /**
+     * An immutable copy of the handlers registered for each event type in
+     * {@link #handlersByEvent}, which is replaced whenever the handlers for
+     * that type change. This allows baking without acquiring the lock.
+     */
+    private final ConcurrentMap<Class<?>, List<RegisteredListener<?>>> handlersSnapshot = Maps.newConcurrentMap();
+
     /**
      * A cache of all the handlers for an event type for quick event posting.
-     * <p>The cache is currently entirely invalidated if handlers are added or removed.</p>
+     * <p>Only the baked subtypes of an event type are invalidated if handlers
+     * for that type are added or removed.</p>
      */
-    private final LoadingCache<Class<? extends Event>, RegisteredListener.Cache> handlersCache =
-            CacheBuilder.newBuilder().build(new CacheLoader<Class<? extends Event>, RegisteredListener.Cache>() {
-                @Override
-                public RegisteredListener.Cache load(Class<? extends Event> eventClass) throws Exception {
-                    return bakeHandlers(eventClass);
-                }
-            });
+    private final ClassValue<RegisteredListener.Cache> handlersCache = new ClassValue<RegisteredListener.Cache>() {
+
+        @Override
+        protected RegisteredListener.Cache computeValue(Class<?> eventClass) {
+            return bakeHandlers(eventClass);
+        }
+    };
+
+    /**
+     * An index of all event types that have been baked into the
+     * {@link #handlersCache}, keyed by each of their event supertypes
+     * (including the type itself).
+     */
+    private final ConcurrentMap<Class<?>, Set<Class<?>>> bakedSubtypes = Maps.newConcurrentMap();
+
+    /**
+     * The number of events of each type that were not constructed because
+     * {@link #hasListeners(Class)} reported that nothing listens to them.
+     */
+    private final ConcurrentMap<Class<? extends Event>, LongAdder> skippedEvents = Maps.newConcurrentMap();
 
     @Inject
     public SpongeEventManager(PluginManager pluginManager) {
         this.pluginManager = checkNotNull(pluginManager, "pluginManager");
+        this.instrumentation.setEnabled(Sponge.getGlobalConfig().getConfig().getEvents().isInstrumentationEnabled());
     }
 
     private RegisteredListener.Cache bakeHandlers(Class<?> rootEvent) {
@@ -87,16 +120,63 @@ private RegisteredListener.Cache bakeHandlers(Class<?> rootEvent) {
         @SuppressWarnings({"unchecked", "rawtypes"})
         Set<Class<?>> types = (Set) TypeToken.of(rootEvent).getTypes().rawTypes();
 
-        synchronized (this.lock) {
-            for (Class<?> type : types) {
-                if (Event.class.isAssignableFrom(type)) {
-                    handlers.addAll(this.handlersByEvent.get(type));
+        // Index the type before reading the snapshots so concurrent changes always invalidate it
+        for (Class<?> type : types) {
+            if (Event.class.isAssignableFrom(type)) {
+                this.bakedSubtypes.computeIfAbsent(type, key -> Sets.newConcurrentHashSet()).add(rootEvent);
+            }
+        }
+
+        for (Class<?> type : types) {
+            if (Event.class.isAssignableFrom(type)) {
+                List<RegisteredListener<?>> snapshot = this.handlersSnapshot.get(type);
+                if (snapshot != null) {
+                    handlers.addAll(snapshot);
                 }
             }
         }
 
+        List<RegisteredListener<?>> asyncObservers = Lists.newArrayList();
+        Iterator<RegisteredListener<?>> itr = handlers.iterator();
+        while (itr.hasNext()) {
+            RegisteredListener<?> handler = itr.next();
+            if (handler.isAsyncObserver()) {
+                asyncObservers.add(handler);
+                itr.remove();
+            }
+        }
+
         Collections.sort(handlers);
-        return new RegisteredListener.Cache(handlers);
+        try {
+            return new RegisteredListener.Cache(handlers, asyncObservers, this.dispatcherFactory);
+        } catch (Exception e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    /**
+     * Publishes new snapshots for the changed event types and invalidates the
+     * cached handlers of all baked subtypes. Must be called while holding the
+     * lock.
+     */
+    private void invalidateHandlers(Set<Class<?>> changedTypes) {
+        for (Class<?> type : changedTypes) {
+            Collection<RegisteredListener<?>> handlers = this.handlersByEvent.get(type);
+            if (handlers.isEmpty()) {
+                this.handlersSnapshot.remove(type);
+            } else {
+                this.handlersSnapshot.put(type, ImmutableList.copyOf(handlers));
+            }
+        }
+
+        for (Class<?> type : changedTypes) {
+            Set<Class<?>> subtypes = this.bakedSubtypes.get(type);
+            if (subtypes != null) {
+                for (Class<?> subtype : subtypes) {
+                    this.handlersCache.remove(subtype);
+                }
+            }
+        }
     }
 
     private static boolean isValidHandler(Method method) {
@@ -117,16 +197,16 @@ private void register(RegisteredListener<?> handler) {
 
     private void register(List<RegisteredListener<?>> handlers) {
         synchronized (this.lock) {
-            boolean changed = false;
+            Set<Class<?>> changedTypes = Sets.newHashSet();
 
             for (RegisteredListener<?> handler : handlers) {
                 if (this.handlersByEvent.put(handler.getEventClass(), handler)) {
-                    changed = true;
+                    changedTypes.add(handler.getEventClass());
                 }
             }
 
-            if (changed) {
-                this.handlersCache.invalidateAll();
+            if (!changedTypes.isEmpty()) {
+                invalidateHandlers(changedTypes);
             }
         }
     }
@@ -173,6 +253,11 @@ private static <T extends Event> RegisteredListener<T> createRegistration(Plugin
         return new RegisteredListener<>(plugin, eventClass, order, handler, ignoreCancelled, beforeModifications);
     }
 
+    private static <T extends Event> RegisteredListener<T> createAsyncObserver(PluginContainer plugin, Class<T> eventClass,
+            EventListener<? super T> handler) {
+        return new RegisteredListener<>(plugin, eventClass, Order.POST, handler, true, false, true);
+    }
+
     private PluginContainer getPlugin(Object plugin) {
         Optional<PluginContainer> container = this.pluginManager.fromInstance(plugin);
         checkArgument(container.isPresent(), "Unknown plugin: %s", plugin);
@@ -200,21 +285,81 @@ public <T extends Event> void registerListener(Object plugin, Class<T> eventClas
         register(createRegistration(getPlugin(plugin), eventClass, order, false, beforeModifications, handler));
     }
 
+    /**
+     * Registers a listener that observes events of the given type on a
+     * separate thread, after all synchronous listeners were called.
+     *
+     * <p>Async observers only receive events that were not cancelled. They
+     * are passed a read-only copy of the event, taken once the synchronous
+     * listeners were called, and cannot cancel or modify it. Entities,
+     * worlds and other game objects reachable from the event are not copied
+     * and must not be used from the observer thread. If the observers of a
+     * plugin fall behind, further events are dropped for them.</p>
+     *
+     * @param plugin The plugin instance
+     * @param eventClass The event type
+     * @param handler The observer
+     * @param <T> The type of the event
+     */
+    public <T extends Event> void registerAsyncObserver(Object plugin, Class<T> eventClass, EventListener<? super T> handler) {
+        register(createAsyncObserver(getPlugin(plugin), eventClass, handler));
+    }
+
+    private AsyncObserverExecutor getAsyncObserverExecutor() {
+        AsyncObserverExecutor executor = this.asyncObserverExecutor;
+        if (executor == null) {
+            synchronized (this.lock) {
+                executor = this.asyncObserverExecutor;
+                if (executor == null) {
+                    SpongeConfig.EventsCategory config = Sponge.getGlobalConfig().getConfig().getEvents();
+                    executor = new AsyncObserverExecutor(config.getAsyncObserverThreads(), config.getAsyncObserverQueueSize());
+                    this.asyncObserverExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Shuts down the threads of the async observers, called when the server
+     * stops. They are started again if another event is submitted to them.
+     */
+    public void shutdownAsyncObservers() {
+        AsyncObserverExecutor executor;
+        synchronized (this.lock) {
+            executor = this.asyncObserverExecutor;
+            this.asyncObserverExecutor = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Gets the queue statistics of the async observers of each plugin.
+     *
+     * @return The queue statistics by plugin
+     */
+    public Map<PluginContainer, AsyncObserverExecutor.QueueStats> getAsyncObserverStats() {
+        AsyncObserverExecutor executor = this.asyncObserverExecutor;
+        return executor == null ? ImmutableMap.<PluginContainer, AsyncObserverExecutor.QueueStats>of() : executor.getQueueStats();
+    }
+
     private void unregister(Predicate<RegisteredListener<?>> unregister) {
         synchronized (this.lock) {
-            boolean changed = false;
+            Set<Class<?>> changedTypes = Sets.newHashSet();
 
             Iterator<RegisteredListener<?>> itr = this.handlersByEvent.values().iterator();
             while (itr.hasNext()) {
                 RegisteredListener<?> handler = itr.next();
                 if (unregister.test(handler)) {
                     itr.remove();
-                    changed = true;
+                    changedTypes.add(handler.getEventClass());
                 }
             }
 
-            if (changed) {
-                this.handlersCache.invalidateAll();
+            if (!changedTypes.isEmpty()) {
+                invalidateHandlers(changedTypes);
             }
         }
     }
@@ -231,8 +376,57 @@ public void unregisterPluginListeners(Object pluginObj) {
         unregister(handler -> plugin.equals(handler.getPlugin()));
     }
 
+    /**
+     * Gets whether any listener would be called if an event of the given type
+     * was posted. The result is cached until handlers for the event type or
+     * one of its supertypes change.
+     *
+     * <p>This allows callers to skip constructing the event (and any
+     * snapshots needed to construct it) entirely. Implementations that
+     * forward events to other listeners must override this.</p>
+     *
+     * @param eventClass The event type to check
+     * @return True if there are listeners for the event type
+     */
+    public boolean hasListeners(Class<? extends Event> eventClass) {
+        return this.handlersCache.get(checkNotNull(eventClass, "eventClass")).hasListeners();
+    }
+
+    /**
+     * Records that an event of the given type was not constructed because
+     * there were no listeners for it.
+     *
+     * @param eventClass The skipped event type
+     */
+    public void recordSkippedEvent(Class<? extends Event> eventClass) {
+        LongAdder counter = this.skippedEvents.get(eventClass);
+        if (counter == null) {
+            counter = this.skippedEvents.computeIfAbsent(eventClass, key -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    public Map<Class<? extends Event>, Long> getSkippedEvents() {
+        ImmutableMap.Builder<Class<? extends Event>, Long> builder = ImmutableMap.builder();
+        for (Map.Entry<Class<? extends Event>, LongAdder> entry : this.skippedEvents.entrySet()) {
+            builder.put(entry.getKey(), entry.getValue().sum());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Gets the per-listener instrumentation of this event manager. While it
+     * is enabled, events are posted through an instrumented path instead of
+     * the generated dispatchers.
+     *
+     * @return The event instrumentation
+     */
+    public EventInstrumentation getInstrumentation() {
+        return this.instrumentation;
+    }
+
     protected RegisteredListener.Cache getHandlerCache(Event event) {
-        return this.handlersCache.getUnchecked(checkNotNull(event, "event").getClass());
+        return this.handlersCache.get(checkNotNull(event, "event").getClass());
     }
 
     @SuppressWarnings("unchecked")
@@ -248,13 +442,35 @@ protected static boolean post(Event event, List<RegisteredListener<?>> handlers)
         return event instanceof Cancellable && ((Cancellable) event).isCancelled();
     }
 
+    private boolean postAsyncObservers(Event event, RegisteredListener.Cache cache, boolean cancelled) {
+        if (!cancelled && !cache.getAsyncObservers().isEmpty()) {
+            getAsyncObserverExecutor().submit(event, cache.getAsyncObservers());
+        }
+        return cancelled;
+    }
+
     @Override
     public boolean post(Event event) {
-        return post(event, getHandlerCache(event).getListeners());
+        RegisteredListener.Cache cache = getHandlerCache(event);
+        boolean cancelled;
+        if (this.instrumentation.isEnabled()) {
+            cancelled = this.instrumentation.dispatch(event, cache.getListeners());
+        } else {
+            cancelled = cache.getDispatcher().dispatch(event);
+        }
+        return postAsyncObservers(event, cache, cancelled);
     }
 
     public boolean post(Event event, Order order) {
-        return post(event, getHandlerCache(event).getListenersByOrder(order));
+        RegisteredListener.Cache cache = getHandlerCache(event);
+        boolean cancelled;
+        if (this.instrumentation.isEnabled()) {
+            cancelled = this.instrumentation.dispatch(event, cache.getListenersByOrder(order));
+        } else {
+            cancelled = cache.getDispatcherByOrder(order).dispatch(event);
+        }
+        // Async observers are called once the last order was posted
+        return order == Order.POST ? postAsyncObservers(event, cache, cancelled) : cancelled;
     }
 
 }
@@ -24,6 +24,8 @@
  */
 package org.spongepowered.common.interfaces;
 
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TShortIntHashMap;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
@@ -32,7 +34,6 @@
 import org.spongepowered.api.entity.living.player.User;
 import org.spongepowered.api.event.cause.Cause;
 
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -40,9 +41,9 @@ public interface IMixinChunk {
 
     Cause getCurrentPopulateCause();
 
-    Map<Short, Integer> getTrackedShortPlayerPositions();
+    TShortIntHashMap getTrackedShortPlayerPositions();
 
-    Map<Integer, Integer> getTrackedIntPlayerPositions();
+    TIntIntHashMap getTrackedIntPlayerPositions();
 
     Optional<UUID> getTrackedPlayerUniqueId(BlockPos pos);
 
@@ -52,9 +53,19 @@ public interface IMixinChunk {
 
     void addTrackedBlockPosition(Block block, BlockPos pos, EntityPlayer processingPlayer);
 
-    void setTrackedIntPlayerPositions(Map<Integer, Integer> trackedPlayerPositions);
+    void setTrackedIntPlayerPositions(TIntIntHashMap trackedPlayerPositions);
 
-    void setTrackedShortPlayerPositions(Map<Short, Integer> trackedPlayerPositions);
+    void setTrackedShortPlayerPositions(TShortIntHashMap trackedPlayerPositions);
+
+    int getTrackedPositionCount();
+
+    /**
+     * Gets the approximate number of bytes used to track block owners in
+     * this chunk.
+     *
+     * @return The approximate memory usage, in bytes
+     */
+    long getTrackedPositionsMemoryUsage();
 
     void removeTrackedPlayerPosition(BlockPos pos);
 }
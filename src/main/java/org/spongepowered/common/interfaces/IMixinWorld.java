@@ -29,14 +29,17 @@
 import net.minecraft.util.BlockPos;
 import org.spongepowered.api.block.BlockSnapshot;
 import org.spongepowered.api.block.tileentity.TileEntity;
+import org.spongepowered.api.block.tileentity.TileEntityType;
 import org.spongepowered.api.entity.Entity;
 import org.spongepowered.api.event.cause.Cause;
 import org.spongepowered.api.world.gen.GeneratorPopulator;
 import org.spongepowered.api.world.gen.Populator;
 import org.spongepowered.common.configuration.SpongeConfig;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface IMixinWorld {
 
@@ -70,6 +73,15 @@ public interface IMixinWorld {
 
     void updateWorldGenerator();
 
+    /**
+     * Gets whether any block changes or entity spawns were captured since
+     * the last time they were handled, so callers can skip building a
+     * {@link Cause} for {@link #handlePostTickCaptures(Cause)}.
+     *
+     * @return True if there are captures to handle
+     */
+    boolean hasTickCaptures();
+
     void handlePostTickCaptures(Cause cause);
 
     void setProcessingCaptureCause(boolean flag);
@@ -87,4 +99,65 @@ public interface IMixinWorld {
     long getWeatherStartTime();
 
     void setWeatherStartTime(long weatherStartTime);
+
+    /**
+     * Gets a read-only view of the loaded entities. Unlike
+     * {@link org.spongepowered.api.world.World#getEntities()} this does not
+     * copy, so it must only be used from the main thread.
+     *
+     * @return The loaded entities
+     */
+    Collection<Entity> getEntityView();
+
+    /**
+     * Gets a read-only view of the loaded tile entities, see
+     * {@link #getEntityView()}.
+     *
+     * @return The loaded tile entities
+     */
+    Collection<TileEntity> getTileEntityView();
+
+    /**
+     * Gets a read-only view of the loaded tile entities of the given type.
+     * This is a lookup in an index and does not scan the loaded tile
+     * entities. The view reflects tile entities that are loaded or unloaded
+     * later on.
+     *
+     * @param type The tile entity type
+     * @return The loaded tile entities of the type
+     */
+    Collection<TileEntity> getTileEntityView(TileEntityType type);
+
+    /**
+     * Visits every loaded entity without copying the entity list. The
+     * visitor must not spawn or remove entities.
+     *
+     * @param visitor The visitor
+     */
+    void forEachEntity(Consumer<? super Entity> visitor);
+
+    /**
+     * Visits every loaded entity that is an instance of the given class.
+     *
+     * @param type The entity class
+     * @param visitor The visitor
+     * @param <T> The entity type
+     */
+    <T extends Entity> void forEachEntity(Class<T> type, Consumer<? super T> visitor);
+
+    /**
+     * Visits every loaded tile entity without copying the tile entity list.
+     * The visitor must not add or remove tile entities.
+     *
+     * @param visitor The visitor
+     */
+    void forEachTileEntity(Consumer<? super TileEntity> visitor);
+
+    /**
+     * Visits every loaded tile entity of the given type.
+     *
+     * @param type The tile entity type
+     * @param visitor The visitor
+     */
+    void forEachTileEntity(TileEntityType type, Consumer<? super TileEntity> visitor);
 }
@@ -52,9 +52,9 @@ public abstract class MixinDataHolder implements DataHolder {
     @SuppressWarnings("unchecked")
     @Override
     public <T extends DataManipulator<?, ?>> Optional<T> get(Class<T> containerClass) {
-        final Optional<DataProcessor<?, ?>> optional = SpongeDataRegistry.getInstance().getWildProcessor(containerClass);
-        if (optional.isPresent()) {
-            return (Optional<T>) optional.get().from(this);
+        final DataProcessor<?, ?> processor = SpongeDataRegistry.getInstance().getDataProcessorDelegate(checkNotNull(containerClass));
+        if (processor != null) {
+            return (Optional<T>) processor.from(this);
         }
         return Optional.empty();
     }
@@ -62,9 +62,9 @@ public abstract class MixinDataHolder implements DataHolder {
     @SuppressWarnings("unchecked")
     @Override
     public <T extends DataManipulator<?, ?>> Optional<T> getOrCreate(Class<T> containerClass) {
-        final Optional<DataProcessor<?, ?>> optional = SpongeDataRegistry.getInstance().getWildProcessor(containerClass);
-        if (optional.isPresent()) {
-            return (Optional<T>) optional.get().createFrom(this);
+        final DataProcessor<?, ?> processor = SpongeDataRegistry.getInstance().getDataProcessorDelegate(checkNotNull(containerClass));
+        if (processor != null) {
+            return (Optional<T>) processor.createFrom(this);
         } else if (this instanceof IMixinCustomDataHolder) {
             return ((IMixinCustomDataHolder) this).getCustom(containerClass);
         }
@@ -73,15 +73,16 @@ public abstract class MixinDataHolder implements DataHolder {
 
     @Override
     public boolean supports(Class<? extends DataManipulator<?, ?>> holderClass) {
-        final Optional<DataProcessor<?, ?>> optional = SpongeDataRegistry.getInstance().getWildProcessor(holderClass);
-        return optional.isPresent() && optional.get().supports(this);
+        final DataProcessor<?, ?> processor = SpongeDataRegistry.getInstance().getDataProcessorDelegate(checkNotNull(holderClass));
+        return processor != null && processor.supports(this);
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public <E> DataTransactionResult offer(Key<? extends BaseValue<E>> key, E value) {
-        final Optional<ValueProcessor<E, ? extends BaseValue<E>>> optional = SpongeDataRegistry.getInstance().getBaseValueProcessor(key);
-        if (optional.isPresent()) {
-            return optional.get().offerToStore(this, value);
+        final ValueProcessor<E, ?> processor = (ValueProcessor<E, ?>) SpongeDataRegistry.getInstance().getValueProcessorDelegate(checkNotNull(key));
+        if (processor != null) {
+            return processor.offerToStore(this, value);
         } else if (this instanceof IMixinCustomDataHolder) {
             return ((IMixinCustomDataHolder) this).offerCustom(key, value);
         }
@@ -91,9 +92,9 @@ public <E> DataTransactionResult offer(Key<? extends BaseValue<E>> key, E value)
     @SuppressWarnings({"rawtypes", "unchecked"})
     @Override
     public DataTransactionResult offer(DataManipulator<?, ?> valueContainer, MergeFunction function) {
-        final Optional<DataProcessor> optional = SpongeDataRegistry.getInstance().getWildDataProcessor(valueContainer.getClass());
-        if (optional.isPresent()) {
-            return optional.get().set(this, valueContainer, checkNotNull(function));
+        final DataProcessor processor = SpongeDataRegistry.getInstance().getDataProcessorDelegate(valueContainer.getClass());
+        if (processor != null) {
+            return processor.set(this, valueContainer, checkNotNull(function));
         } else if (this instanceof IMixinCustomDataHolder) {
             return ((IMixinCustomDataHolder) this).offerCustom(valueContainer, function);
         }
@@ -130,9 +131,9 @@ public DataTransactionResult offer(Iterable<DataManipulator<?, ?>> valueContaine
 
     @Override
     public DataTransactionResult remove(Class<? extends DataManipulator<?, ?>> containerClass) {
-        final Optional<DataProcessor<?, ?>> optional = SpongeDataRegistry.getInstance().getWildProcessor(containerClass);
-        if (optional.isPresent()) {
-            return optional.get().remove(this);
+        final DataProcessor<?, ?> processor = SpongeDataRegistry.getInstance().getDataProcessorDelegate(checkNotNull(containerClass));
+        if (processor != null) {
+            return processor.remove(this);
         } else if (this instanceof IMixinCustomDataHolder) {
             return ((IMixinCustomDataHolder) this).removeCustom(containerClass);
         }
@@ -141,9 +142,9 @@ public DataTransactionResult remove(Class<? extends DataManipulator<?, ?>> conta
 
     @Override
     public DataTransactionResult remove(Key<?> key) {
-        final Optional<ValueProcessor<?, ?>> optional = SpongeDataRegistry.getInstance().getWildValueProcessor(checkNotNull(key));
-        if (optional.isPresent()) {
-            return optional.get().removeFrom(this);
+        final ValueProcessor<?, ?> processor = SpongeDataRegistry.getInstance().getValueProcessorDelegate(checkNotNull(key));
+        if (processor != null) {
+            return processor.removeFrom(this);
         } else if (this instanceof IMixinCustomDataHolder) {
             return ((IMixinCustomDataHolder) this).removeCustom(key);
         }
@@ -170,30 +171,30 @@ public DataTransactionResult copyFrom(DataHolder that, MergeFunction function) {
         return offer(that.getContainers(), function);
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public <E> Optional<E> get(Key<? extends BaseValue<E>> key) {
-        final Optional<ValueProcessor<E, ? extends BaseValue<E>>>
-            optional =
-            SpongeDataRegistry.getInstance().getBaseValueProcessor(checkNotNull(key));
-        if (optional.isPresent()) {
-            return optional.get().getValueFromContainer(this);
+        final ValueProcessor<E, ?> processor = (ValueProcessor<E, ?>) SpongeDataRegistry.getInstance().getValueProcessorDelegate(checkNotNull(key));
+        if (processor != null) {
+            return processor.getValueFromContainer(this);
         }
         return Optional.empty();
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public <E, V extends BaseValue<E>> Optional<V> getValue(Key<V> key) {
-        final Optional<ValueProcessor<E, V>> optional = SpongeDataRegistry.getInstance().getValueProcessor(checkNotNull(key));
-        if (optional.isPresent()) {
-            return optional.get().getApiValueFromContainer(this);
+        final ValueProcessor<E, V> processor = (ValueProcessor<E, V>) SpongeDataRegistry.getInstance().getValueProcessorDelegate(checkNotNull(key));
+        if (processor != null) {
+            return processor.getApiValueFromContainer(this);
         }
         return Optional.empty();
     }
 
     @Override
     public boolean supports(Key<?> key) {
-        final Optional<ValueProcessor<?, ?>> optional = SpongeDataRegistry.getInstance().getWildValueProcessor(checkNotNull(key));
-        return optional.isPresent() && optional.get().supports(this);
+        final ValueProcessor<?, ?> processor = SpongeDataRegistry.getInstance().getValueProcessorDelegate(checkNotNull(key));
+        return processor != null && processor.supports(this);
     }
 
 }
@@ -50,6 +50,7 @@
 import net.minecraft.util.BlockPos;
 import net.minecraft.util.ChatComponentTranslation;
 import net.minecraft.util.IChatComponent;
+import net.minecraft.util.MathHelper;
 import net.minecraft.world.WorldServer;
 import org.apache.logging.log4j.Logger;
 import org.spongepowered.api.block.tileentity.Sign;
@@ -82,10 +83,13 @@
 import org.spongepowered.asm.mixin.injection.callback.LocalCapture;
 import org.spongepowered.common.Sponge;
 import org.spongepowered.common.SpongeImplFactory;
+import org.spongepowered.common.configuration.SpongeConfig;
+import org.spongepowered.common.event.SpongeEventManager;
 import org.spongepowered.common.interfaces.IMixinNetworkManager;
 import org.spongepowered.common.interfaces.IMixinPacketResourcePackSend;
 import org.spongepowered.common.interfaces.network.IMixinC08PacketPlayerBlockPlacement;
 import org.spongepowered.common.text.SpongeTexts;
+import org.spongepowered.common.util.SpongeHooks;
 
 import java.net.InetSocketAddress;
 import java.util.HashMap;
@@ -94,6 +98,8 @@
 import java.util.Optional;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 @Mixin(NetHandlerPlayServer.class)
 public abstract class MixinNetHandlerPlayServer implements PlayerConnection {
 
@@ -105,7 +111,11 @@ public abstract class MixinNetHandlerPlayServer implements PlayerConnection {
     @Shadow public abstract void sendPacket(final Packet packetIn);
 
     private boolean justTeleported = false;
-    private Location<World> lastMoveLocation = null;
+    // The last location a move was handled for, kept as plain values so movement packets don't allocate
+    @Nullable private net.minecraft.world.World lastMoveWorld;
+    private double lastMoveX;
+    private double lastMoveY;
+    private double lastMoveZ;
 
     private final Map<String, ResourcePack> sentResourcePacks = new HashMap<String, ResourcePack>();
 
@@ -270,65 +280,120 @@ public void setPlayerLocation(double x, double y, double z, float yaw, float pit
     @Inject(method = "processPlayer", at = @At(value = "FIELD", target = "net.minecraft.network.NetHandlerPlayServer.hasMoved:Z", ordinal = 2), cancellable = true)
     public void proccesPlayerMoved(C03PacketPlayer packetIn, CallbackInfo ci){
         if (packetIn.isMoving() || packetIn.getRotating() && !this.playerEntity.isDead) {
-            Player player = (Player) this.playerEntity;
-            Vector3d fromrot = player.getRotation();
+            // The thresholds are checked against the raw packet values, so packets below them don't allocate anything
+            double fromX = this.playerEntity.posX;
+            double fromY = this.playerEntity.posY;
+            double fromZ = this.playerEntity.posZ;
 
             // If Sponge used the player's current location, the delta might never be triggered which could be exploited
-            Location<World> from = player.getLocation();
-            if (this.lastMoveLocation != null) {
-                from = this.lastMoveLocation;
+            if (this.lastMoveWorld == this.playerEntity.worldObj) {
+                fromX = this.lastMoveX;
+                fromY = this.lastMoveY;
+                fromZ = this.lastMoveZ;
             }
 
-            Vector3d torot = new Vector3d(packetIn.getPitch(), packetIn.getYaw(), 0);
-            Location<World> to = new Location<World>(player.getWorld(), packetIn.getPositionX(), packetIn.getPositionY(), packetIn.getPositionZ());
+            double toX = packetIn.getPositionX();
+            double toY = packetIn.getPositionY();
+            double toZ = packetIn.getPositionZ();
+            float fromPitch = this.playerEntity.rotationPitch;
+            float fromYaw = this.playerEntity.rotationYaw;
+            float toPitch = packetIn.getPitch();
+            float toYaw = packetIn.getYaw();
 
             // Minecraft sends a 0, 0, 0 position when rotation only update occurs, this needs to be recognized and corrected
             boolean rotationOnly = !packetIn.isMoving() && packetIn.getRotating();
             if (rotationOnly) {
                 // Correct the to location so it's not misrepresented to plugins, only when player rotates without moving
                 // In this case it's only a rotation update, which isn't related to the to location
-                from = player.getLocation();
-                to = from;
+                fromX = toX = this.playerEntity.posX;
+                fromY = toY = this.playerEntity.posY;
+                fromZ = toZ = this.playerEntity.posZ;
             }
 
             // Minecraft does the same with rotation when it's only a positional update
             boolean positionOnly = packetIn.isMoving() && !packetIn.getRotating();
             if (positionOnly) {
                 // Correct the new rotation to match the old rotation
-                torot = fromrot;
+                toPitch = fromPitch;
+                toYaw = fromYaw;
             }
 
-            double deltaSquared = to.getPosition().distanceSquared(from.getPosition());
-            double deltaAngleSquared = fromrot.distanceSquared(torot);
-
-            // These magic numbers are sad but help prevent excessive lag from this event.
-            // eventually it would be nice to not have them
-            if (deltaSquared > ((1f / 16) * (1f / 16)) || deltaAngleSquared > (.15f * .15f)) {
-                Transform<World> fromTransform = player.getTransform().setLocation(from).setRotation(fromrot);
-                Transform<World> toTransform = player.getTransform().setLocation(to).setRotation(torot);
-                DisplaceEntityEvent.Move.TargetPlayer event =
-                        SpongeEventFactory.createDisplaceEntityEventMoveTargetPlayer(Sponge.getGame(), fromTransform, toTransform, player);
-                Sponge.getGame().getEventManager().post(event);
-                if (event.isCancelled()) {
-                    player.setTransform(fromTransform);
-                    this.lastMoveLocation = from;
-                    ci.cancel();
-                } else if (!event.getToTransform().equals(toTransform)) {
-                    player.setTransform(event.getToTransform());
-                    this.lastMoveLocation = event.getToTransform().getLocation();
-                    ci.cancel();
-                } else if (!from.equals(player.getLocation()) && this.justTeleported) {
-                    this.lastMoveLocation = player.getLocation();
-                    // Prevent teleports during the move event from causing odd behaviors
+            SpongeConfig.WorldCategory config = SpongeHooks.getActiveConfig(this.playerEntity.worldObj).getConfig().getWorld();
+            if (config.isMovementEventBlockChangesOnly()) {
+                if (MathHelper.floor_double(fromX) == MathHelper.floor_double(toX)
+                        && MathHelper.floor_double(fromY) == MathHelper.floor_double(toY)
+                        && MathHelper.floor_double(fromZ) == MathHelper.floor_double(toZ)) {
+                    return;
+                }
+            } else {
+                double deltaX = toX - fromX;
+                double deltaY = toY - fromY;
+                double deltaZ = toZ - fromZ;
+                double deltaPitch = toPitch - fromPitch;
+                double deltaYaw = toYaw - fromYaw;
+                double distance = config.getMovementEventDistance();
+                double angle = config.getMovementEventAngle();
+                if (deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ <= distance * distance
+                        && deltaPitch * deltaPitch + deltaYaw * deltaYaw <= angle * angle) {
+                    return;
+                }
+            }
+
+            SpongeEventManager eventManager = Sponge.getSpongeEventManager();
+            if (!eventManager.hasListeners(DisplaceEntityEvent.Move.TargetPlayer.class)) {
+                eventManager.recordSkippedEvent(DisplaceEntityEvent.Move.TargetPlayer.class);
+                if (this.justTeleported && !isPlayerAt(fromX, fromY, fromZ)) {
+                    setLastMove(this.playerEntity.worldObj, this.playerEntity.posX, this.playerEntity.posY, this.playerEntity.posZ);
                     this.justTeleported = false;
                     ci.cancel();
                 } else {
-                    this.lastMoveLocation = event.getToTransform().getLocation();
+                    setLastMove(this.playerEntity.worldObj, toX, toY, toZ);
                 }
+                return;
+            }
+
+            Player player = (Player) this.playerEntity;
+            Location<World> from = new Location<World>(player.getWorld(), fromX, fromY, fromZ);
+            Location<World> to = new Location<World>(player.getWorld(), toX, toY, toZ);
+            Transform<World> fromTransform = player.getTransform().setLocation(from).setRotation(new Vector3d(fromPitch, fromYaw, 0));
+            Transform<World> toTransform = player.getTransform().setLocation(to).setRotation(new Vector3d(toPitch, toYaw, 0));
+            DisplaceEntityEvent.Move.TargetPlayer event =
+                    SpongeEventFactory.createDisplaceEntityEventMoveTargetPlayer(Sponge.getGame(), fromTransform, toTransform, player);
+            eventManager.post(event);
+            if (event.isCancelled()) {
+                player.setTransform(fromTransform);
+                setLastMove(from);
+                ci.cancel();
+            } else if (!event.getToTransform().equals(toTransform)) {
+                player.setTransform(event.getToTransform());
+                setLastMove(event.getToTransform().getLocation());
+                ci.cancel();
+            } else if (this.justTeleported && !isPlayerAt(fromX, fromY, fromZ)) {
+                setLastMove(player.getLocation());
+                // Prevent teleports during the move event from causing odd behaviors
+                this.justTeleported = false;
+                ci.cancel();
+            } else {
+                setLastMove(event.getToTransform().getLocation());
             }
         }
     }
 
+    private boolean isPlayerAt(double x, double y, double z) {
+        return this.playerEntity.posX == x && this.playerEntity.posY == y && this.playerEntity.posZ == z;
+    }
+
+    private void setLastMove(Location<World> location) {
+        setLastMove((net.minecraft.world.World) location.getExtent(), location.getX(), location.getY(), location.getZ());
+    }
+
+    private void setLastMove(net.minecraft.world.World world, double x, double y, double z) {
+        this.lastMoveWorld = world;
+        this.lastMoveX = x;
+        this.lastMoveY = y;
+        this.lastMoveZ = z;
+    }
+
     private ChatComponentTranslation tmpQuitMessage;
 
     /**
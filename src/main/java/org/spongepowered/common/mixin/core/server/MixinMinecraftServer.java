@@ -635,4 +635,9 @@ public void onSetResourcePack(String url, String hash, CallbackInfo ci) {
             }
         }
     }
+
+    @Inject(method = "stopServer()V", at = @At("RETURN"))
+    public void onStopServer(CallbackInfo ci) {
+        Sponge.getSpongeEventManager().shutdownAsyncObservers();
+    }
 }
@@ -26,8 +26,9 @@
 
 import com.flowpowered.math.vector.Vector2i;
 import com.flowpowered.math.vector.Vector3i;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TShortIntHashMap;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
@@ -85,8 +86,8 @@
 @Mixin(net.minecraft.world.chunk.Chunk.class)
 public abstract class MixinChunk implements Chunk, IMixinChunk {
 
-    public Map<Integer, Integer> trackedIntBlockPositions = Maps.newHashMap();
-    public Map<Short, Integer> trackedShortBlockPositions = Maps.newHashMap();
+    public TIntIntHashMap trackedIntBlockPositions = new TIntIntHashMap(0, 0.5f, 0, NO_OWNER);
+    public TShortIntHashMap trackedShortBlockPositions = new TShortIntHashMap(0, 0.5f, (short) 0, NO_OWNER);
     private Cause populateCause;
 
     private static final int NUM_XZ_BITS = 4;
@@ -98,6 +99,9 @@ public abstract class MixinChunk implements Chunk, IMixinChunk {
     private static final short XZ_MASK = 0xF;
     private static final short Y_SHORT_MASK = 0xFF;
     private static final int Y_INT_MASK = 0xFFFFFF;
+    private static final int NO_OWNER = -1;
+    // Rough size of a primitive hash map object and its three backing array headers
+    private static final int TRACKED_MAP_OVERHEAD = 80;
 
     private static final Vector2i BIOME_SIZE = SpongeChunkLayout.CHUNK_SIZE.toVector2(true);
     private Vector3i chunkPos;
@@ -438,31 +442,23 @@ public void addTrackedBlockPosition(Block block, BlockPos pos, EntityPlayer play
     }
 
     @Override
-    public Map<Integer, Integer> getTrackedIntPlayerPositions() {
+    public TIntIntHashMap getTrackedIntPlayerPositions() {
         return this.trackedIntBlockPositions;
     }
 
     @Override
-    public Map<Short, Integer> getTrackedShortPlayerPositions() {
+    public TShortIntHashMap getTrackedShortPlayerPositions() {
         return this.trackedShortBlockPositions;
     }
 
     @Override
     public Optional<User> getBlockPosOwner(BlockPos pos) {
-        if (this.trackedIntBlockPositions.get(blockPosToInt(pos)) != null) {
-            int index = this.trackedIntBlockPositions.get(blockPosToInt(pos));
-            Optional<UUID> uuid = (((IMixinWorldInfo) this.worldObj.getWorldInfo()).getUniqueIdForIndex(index));
-            if (uuid.isPresent()) {
-                // get player if online
-                EntityPlayer player = this.worldObj.getPlayerEntityByUUID(uuid.get());
-                if (player != null) {
-                    return Optional.of((User) player);
-                }
-                // player is not online, get user from storage if one exists
-                return Sponge.getGame().getServiceManager().provide(UserStorage.class).get().get(uuid.get());
-            }
-        } else if (this.trackedShortBlockPositions.get(blockPosToShort(pos)) != null) {
-            int index = this.trackedShortBlockPositions.get(blockPosToShort(pos));
+        int index = this.trackedIntBlockPositions.get(blockPosToInt(pos));
+        if (index == NO_OWNER) {
+            index = this.trackedShortBlockPositions.get(blockPosToShort(pos));
+        }
+
+        if (index != NO_OWNER) {
             Optional<UUID> uuid = (((IMixinWorldInfo) this.worldObj.getWorldInfo()).getUniqueIdForIndex(index));
             if (uuid.isPresent()) {
                 // get player if online
@@ -479,15 +475,28 @@ public Optional<User> getBlockPosOwner(BlockPos pos) {
     }
 
     @Override
-    public void setTrackedIntPlayerPositions(Map<Integer, Integer> trackedPositions) {
+    public void setTrackedIntPlayerPositions(TIntIntHashMap trackedPositions) {
         this.trackedIntBlockPositions = trackedPositions;
     }
 
     @Override
-    public void setTrackedShortPlayerPositions(Map<Short, Integer> trackedPositions) {
+    public void setTrackedShortPlayerPositions(TShortIntHashMap trackedPositions) {
         this.trackedShortBlockPositions = trackedPositions;
     }
 
+    @Override
+    public int getTrackedPositionCount() {
+        return this.trackedShortBlockPositions.size() + this.trackedIntBlockPositions.size();
+    }
+
+    @Override
+    public long getTrackedPositionsMemoryUsage() {
+        // Each map slot holds a key, an int owner index and a state byte
+        return 2 * TRACKED_MAP_OVERHEAD
+                + this.trackedShortBlockPositions.capacity() * (long) (2 + 4 + 1)
+                + this.trackedIntBlockPositions.capacity() * (long) (4 + 4 + 1);
+    }
+
     @Override
     public void removeTrackedPlayerPosition(BlockPos pos) {
         if (pos.getY() <= 255) {
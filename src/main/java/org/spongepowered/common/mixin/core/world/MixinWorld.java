@@ -26,6 +26,7 @@
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 import com.flowpowered.math.vector.Vector2i;
 import com.flowpowered.math.vector.Vector3d;
@@ -95,6 +96,7 @@
 import org.spongepowered.api.block.BlockState;
 import org.spongepowered.api.block.BlockType;
 import org.spongepowered.api.block.tileentity.TileEntity;
+import org.spongepowered.api.block.tileentity.TileEntityType;
 import org.spongepowered.api.data.DataContainer;
 import org.spongepowered.api.data.DataHolder;
 import org.spongepowered.api.data.DataTransactionBuilder;
@@ -173,6 +175,7 @@
 import org.spongepowered.common.data.util.NbtDataUtil;
 import org.spongepowered.common.effect.particle.SpongeParticleEffect;
 import org.spongepowered.common.effect.particle.SpongeParticleHelper;
+import org.spongepowered.common.event.SpongeEventManager;
 import org.spongepowered.common.interfaces.IMixinChunk;
 import org.spongepowered.common.interfaces.IMixinWorld;
 import org.spongepowered.common.interfaces.IMixinWorldSettings;
@@ -184,8 +187,11 @@
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.util.StaticMixinHelper;
 import org.spongepowered.common.util.VecHelper;
+import org.spongepowered.common.world.BlockCaptureList;
 import org.spongepowered.common.world.CaptureType;
+import org.spongepowered.common.world.TickingBlock;
 import org.spongepowered.common.world.DimensionManager;
+import org.spongepowered.common.world.TileEntityList;
 import org.spongepowered.common.world.border.PlayerBorderListener;
 import org.spongepowered.common.world.extent.ExtentViewDownsize;
 import org.spongepowered.common.world.extent.ExtentViewTransform;
@@ -200,6 +206,7 @@
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -207,9 +214,9 @@
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
@@ -233,18 +240,24 @@ public abstract class MixinWorld implements World, IMixinWorld {
     public List<Entity> capturedEntityItems = new ArrayList<Entity>();
     public List<Entity> capturedOnBlockAddedEntities = new ArrayList<Entity>();
     public List<Entity> capturedOnBlockAddedItems = new ArrayList<Entity>();
-    public BlockSnapshot currentTickBlock = null;
+    public final TickingBlock currentTickBlock = new TickingBlock();
     public BlockSnapshot currentTickOnBlockAdded = null;
     public Entity currentTickEntity = null;
     public TileEntity currentTickTileEntity = null;
     public SpongeBlockSnapshotBuilder builder = new SpongeBlockSnapshotBuilder();
-    public List<BlockSnapshot> capturedSpongeBlockBreaks = new ArrayList<BlockSnapshot>();
-    public List<BlockSnapshot> capturedSpongeBlockPlaces = new ArrayList<BlockSnapshot>();
-    public List<BlockSnapshot> capturedSpongeBlockModifications = new ArrayList<BlockSnapshot>();
-    public List<BlockSnapshot> capturedSpongeBlockFluids = new ArrayList<BlockSnapshot>();
+    public BlockCaptureList capturedSpongeBlockBreaks = new BlockCaptureList();
+    public BlockCaptureList capturedSpongeBlockPlaces = new BlockCaptureList();
+    public BlockCaptureList capturedSpongeBlockModifications = new BlockCaptureList();
+    public BlockCaptureList capturedSpongeBlockFluids = new BlockCaptureList();
     public Map<PopulatorType, List<Transaction<BlockSnapshot>>> capturedSpongePopulators = Maps.newHashMap();
     public Map<CaptureType, List<BlockSnapshot>> captureBlockLists = Maps.newHashMap();
+    private int capturedPopulatorTransactions;
+    // Reused between causes, unless captures are handled re-entrantly from an event listener
+    private final List<Transaction<BlockSnapshot>> invalidTransactionsBuffer = new ArrayList<Transaction<BlockSnapshot>>();
+    private final List<BlockSnapshot> capturedOriginalsBuffer = new ArrayList<BlockSnapshot>();
+    private int captureDepth;
     private boolean keepSpawnLoaded;
+    private TileEntityList tileEntityList;
     private boolean worldSpawnerRunning;
     private boolean chunkSpawnerRunning;
     public SpongeConfig<SpongeConfig.WorldConfig> worldConfig;
@@ -321,6 +334,13 @@ public void onConstructed(ISaveHandler saveHandlerIn, WorldInfo info, WorldProvi
         this.captureBlockLists.put(CaptureType.PLACE, this.capturedSpongeBlockPlaces);
     }
 
+    @Inject(method = "<init>", at = @At("RETURN"))
+    public void onConstructTileEntityList(ISaveHandler saveHandlerIn, WorldInfo info, WorldProvider providerIn, Profiler profilerIn,
+            boolean client, CallbackInfo ci) {
+        this.tileEntityList = new TileEntityList();
+        this.loadedTileEntityList = this.tileEntityList;
+    }
+
     @SuppressWarnings("rawtypes")
     @Overwrite
     public boolean setBlockState(BlockPos pos, IBlockState newState, int flags) {
@@ -384,15 +404,16 @@ public boolean setBlockState(BlockPos pos, IBlockState newState, int flags) {
 
                         transaction = new Transaction<BlockSnapshot>(originalBlockSnapshot, originalBlockSnapshot.withState((BlockState)newState));
                         this.capturedSpongePopulators.get(populatorType).add(transaction);
+                        this.capturedPopulatorTransactions++;
                     }
                 } else if (block.getMaterial().isLiquid() || currentState.getBlock().getMaterial().isLiquid()) {
-                    this.capturedSpongeBlockFluids.add(originalBlockSnapshot);
+                    this.capturedSpongeBlockFluids.add(pos, originalBlockSnapshot);
                 } else if (block == Blocks.air) {
-                    this.capturedSpongeBlockBreaks.add(originalBlockSnapshot);
+                    this.capturedSpongeBlockBreaks.add(pos, originalBlockSnapshot);
                 } else if (block != currentState.getBlock()) {
-                    this.capturedSpongeBlockPlaces.add(originalBlockSnapshot);
+                    this.capturedSpongeBlockPlaces.add(pos, originalBlockSnapshot);
                 } else {
-                    this.capturedSpongeBlockModifications.add(originalBlockSnapshot);
+                    this.capturedSpongeBlockModifications.add(pos, originalBlockSnapshot);
                 }
             }
 
@@ -402,10 +423,10 @@ public boolean setBlockState(BlockPos pos, IBlockState newState, int flags) {
 
             if (iblockstate1 == null) {
                 if (originalBlockSnapshot != null) {
-                    this.capturedSpongeBlockBreaks.remove(originalBlockSnapshot);
-                    this.capturedSpongeBlockFluids.remove(originalBlockSnapshot);
-                    this.capturedSpongeBlockPlaces.remove(originalBlockSnapshot);
-                    this.capturedSpongeBlockModifications.remove(originalBlockSnapshot);
+                    this.capturedSpongeBlockBreaks.remove(pos, originalBlockSnapshot);
+                    this.capturedSpongeBlockFluids.remove(pos, originalBlockSnapshot);
+                    this.capturedSpongeBlockPlaces.remove(pos, originalBlockSnapshot);
+                    this.capturedSpongeBlockModifications.remove(pos, originalBlockSnapshot);
                 }
                 return false;
             } else {
@@ -447,16 +468,18 @@ public long getRunningDuration() {
 
     @Redirect(method = "forceBlockUpdateTick", at = @At(value = "INVOKE", target = "Lnet/minecraft/block/Block;updateTick(Lnet/minecraft/world/World;Lnet/minecraft/util/BlockPos;Lnet/minecraft/block/state/IBlockState;Ljava/util/Random;)V"))
     public void onForceBlockUpdateTick(Block block, net.minecraft.world.World worldIn, BlockPos pos, IBlockState state, Random rand) {
-        if (this.isRemote || this.currentTickBlock != null || ((IMixinWorld) worldIn).capturingTerrainGen()) {
+        if (this.isRemote || this.currentTickBlock.isActive() || ((IMixinWorld) worldIn).capturingTerrainGen()) {
             block.updateTick(worldIn, pos, state, rand);
             return;
         }
 
         this.processingCaptureCause = true;
-        this.currentTickBlock = createSpongeBlockSnapshot(state, pos, 0); // flag doesn't matter here
+        this.currentTickBlock.enter(this, state, pos, 0); // flag doesn't matter here
         block.updateTick(worldIn, pos, state, rand);
-        handlePostTickCaptures(Cause.of(this.currentTickBlock));
-        this.currentTickBlock = null;
+        if (hasTickCaptures()) {
+            handlePostTickCaptures(Cause.of(this.currentTickBlock.getSnapshot(this)));
+        }
+        this.currentTickBlock.exit();
         this.processingCaptureCause = false;
     }
 
@@ -470,7 +493,9 @@ public void onUpdateEntities(net.minecraft.entity.Entity entityIn) {
         this.processingCaptureCause = true;
         this.currentTickEntity = (Entity) entityIn;
         entityIn.onUpdate();
-        handlePostTickCaptures(Cause.of(entityIn));
+        if (hasTickCaptures()) {
+            handlePostTickCaptures(Cause.of(entityIn));
+        }
         this.currentTickEntity = null;
         this.processingCaptureCause = false;
     }
@@ -485,7 +510,9 @@ public void onUpdateTileEntities(IUpdatePlayerListBox tile) {
         this.processingCaptureCause = true;
         this.currentTickTileEntity = (TileEntity) tile;
         tile.update();
-        handlePostTickCaptures(Cause.of(tile));
+        if (hasTickCaptures()) {
+            handlePostTickCaptures(Cause.of(tile));
+        }
         this.currentTickTileEntity = null;
         this.processingCaptureCause = false;
     }
@@ -500,7 +527,9 @@ public void onCallEntityUpdate(net.minecraft.entity.Entity entity) {
         this.processingCaptureCause = true;
         this.currentTickEntity = (Entity) entity;
         entity.onUpdate();
-        handlePostTickCaptures(Cause.of(entity));
+        if (hasTickCaptures()) {
+            handlePostTickCaptures(Cause.of(entity));
+        }
         this.currentTickEntity = null;
         this.processingCaptureCause = false;
     }
@@ -607,19 +636,27 @@ else if (!(entityIn instanceof EntityPlayer) && entityIn instanceof EntityTameab
                     }
                 }
 
+                SpongeEventManager eventManager = Sponge.getSpongeEventManager();
+                Class<? extends org.spongepowered.api.event.Event> eventClass =
+                        entityIn instanceof EntityItem ? DropItemEvent.Custom.class : SpawnEntityEvent.Custom.class;
                 org.spongepowered.api.event.Event event = null;
-                ImmutableList.Builder<EntitySnapshot> entitySnapshotBuilder = new ImmutableList.Builder<EntitySnapshot>();
-                entitySnapshotBuilder.add(((Entity) entityIn).createSnapshot());
 
-                if (entityIn instanceof EntityItem) {
-                    this.capturedEntityItems.add((Item) entityIn);
-                    event = SpongeEventFactory.createDropItemEventCustom(Sponge.getGame(), cause, (List<Entity>)(List<?>)this.capturedEntityItems, entitySnapshotBuilder.build(), (World)(Object) this);
+                if (eventManager.hasListeners(eventClass)) {
+                    ImmutableList.Builder<EntitySnapshot> entitySnapshotBuilder = new ImmutableList.Builder<EntitySnapshot>();
+                    entitySnapshotBuilder.add(((Entity) entityIn).createSnapshot());
+
+                    if (entityIn instanceof EntityItem) {
+                        this.capturedEntityItems.add((Item) entityIn);
+                        event = SpongeEventFactory.createDropItemEventCustom(Sponge.getGame(), cause, (List<Entity>)(List<?>)this.capturedEntityItems, entitySnapshotBuilder.build(), (World)(Object) this);
+                    } else {
+                        event = SpongeEventFactory.createSpawnEntityEventCustom(Sponge.getGame(), cause, this.capturedEntities, entitySnapshotBuilder.build(), (World)(Object) this);
+                    }
+                    eventManager.post(event);
                 } else {
-                    event = SpongeEventFactory.createSpawnEntityEventCustom(Sponge.getGame(), cause, this.capturedEntities, entitySnapshotBuilder.build(), (World)(Object) this);
+                    eventManager.recordSkippedEvent(eventClass);
                 }
-                Sponge.getGame().getEventManager().post(event);
 
-                if (!((Cancellable)event).isCancelled()) {
+                if (event == null || !((Cancellable)event).isCancelled()) {
                     if(entityIn instanceof net.minecraft.entity.effect.EntityWeatherEffect) {
                         return addWeatherEffect(entityIn);
                     }
@@ -627,10 +664,12 @@ else if (!(entityIn instanceof EntityPlayer) && entityIn instanceof EntityTameab
                     this.getChunkFromChunkCoords(i, j).addEntity(entityIn);
                     this.loadedEntityList.add(entityIn);
                     this.onEntityAdded(entityIn);
-                    if (entityIn instanceof EntityItem) {
-                        this.capturedEntityItems.remove(entityIn);
-                    } else {
-                        this.capturedEntities.remove(entityIn);
+                    if (event != null) {
+                        if (entityIn instanceof EntityItem) {
+                            this.capturedEntityItems.remove(entityIn);
+                        } else {
+                            this.capturedEntities.remove(entityIn);
+                        }
                     }
                     return true;
                 }
@@ -641,18 +680,36 @@ else if (!(entityIn instanceof EntityPlayer) && entityIn instanceof EntityTameab
     }
 
     @Override
-    @SuppressWarnings("unchecked")
+    public boolean hasTickCaptures() {
+        return this.capturedEntities.size() > 0 || this.capturedEntityItems.size() > 0 || this.capturedSpongeBlockBreaks.size() > 0
+                || this.capturedSpongeBlockModifications.size() > 0 || this.capturedSpongeBlockPlaces.size() > 0
+                || this.capturedSpongeBlockFluids.size() > 0 || this.capturedPopulatorTransactions > 0;
+    }
+
+    @Override
     public void handlePostTickCaptures(Cause cause) {
         if (this.isRemote || this.restoringBlocks || cause == null || cause.isEmpty()) {
             return;
-        } else if (this.capturedEntities.size() == 0 && this.capturedEntityItems.size() == 0 && this.capturedSpongeBlockBreaks.size() == 0
-                && this.capturedSpongeBlockModifications.size() == 0 && this.capturedSpongeBlockPlaces.size() == 0
-                && this.capturedSpongeBlockFluids.size() == 0 && this.capturedSpongePopulators.size() == 0) {
+        } else if (!hasTickCaptures()) {
             return; // nothing was captured, return
         }
 
+        boolean reuseBuffers = this.captureDepth++ == 0;
+        try {
+            processTickCaptures(cause, reuseBuffers);
+        } finally {
+            this.captureDepth--;
+            if (reuseBuffers) {
+                this.invalidTransactionsBuffer.clear();
+                this.capturedOriginalsBuffer.clear();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void processTickCaptures(Cause cause, boolean reuseBuffers) {
         net.minecraft.world.World world = (net.minecraft.world.World)(Object) this;
-        List<Transaction<BlockSnapshot>> invalidTransactions = new ArrayList<Transaction<BlockSnapshot>>();
+        List<Transaction<BlockSnapshot>> invalidTransactions = reuseBuffers ? this.invalidTransactionsBuffer : new ArrayList<Transaction<BlockSnapshot>>();
         boolean destructDrop = false;
 
         // Attempt to find a Player cause if we do not have one
@@ -730,51 +787,76 @@ public void handlePostTickCaptures(Cause cause) {
         }
 
         // Handle Block captures
+        SpongeEventManager eventManager = Sponge.getSpongeEventManager();
         for (Map.Entry<CaptureType, List<BlockSnapshot>> mapEntry : this.captureBlockLists.entrySet()) {
             CaptureType captureType = mapEntry.getKey();
             List<BlockSnapshot> capturedBlockList = mapEntry.getValue();
 
             if (capturedBlockList.size() > 0) {
-                ImmutableList<Transaction<BlockSnapshot>> blockTransactions;
-                ImmutableList.Builder<Transaction<BlockSnapshot>> builder = new ImmutableList.Builder<Transaction<BlockSnapshot>>();
-
-                Iterator<BlockSnapshot> iterator = capturedBlockList.iterator();
-                while (iterator.hasNext()) {
-                    BlockSnapshot blockSnapshot = iterator.next();
-                    BlockPos pos = VecHelper.toBlockPos(blockSnapshot.getPosition());
-                    IBlockState currentState = getBlockState(pos);
-                    builder.add(new Transaction<BlockSnapshot>(blockSnapshot, createSpongeBlockSnapshot(currentState, pos, 0)));
-                    iterator.remove();
+                BlockSnapshot firstSnapshot = capturedBlockList.get(0);
+                // Check for tracked user at pos of first transaction
+                if (!cause.first(User.class).isPresent()) {
+                    Optional<Chunk> chunk = this.getChunk(firstSnapshot.getPosition());
+                    if (chunk.isPresent()) {
+                        IMixinChunk spongeChunk = (IMixinChunk) chunk.get();
+                        BlockPos pos = VecHelper.toBlockPos(firstSnapshot.getPosition());
+                        Optional<User> user = spongeChunk.getBlockPosOwner(pos);
+                        if (user.isPresent()) {
+                            cause = cause.with(user);
+                        }
+                    }
                 }
-                blockTransactions = builder.build();
 
-                if (blockTransactions.size() > 0) {
-                    ChangeBlockEvent event = null;
-                    // Check for tracked user at pos of first transaction
-                    if (!cause.first(User.class).isPresent()) {
-                        Transaction<BlockSnapshot> blockTransaction = blockTransactions.get(0);
-                        Optional<Chunk> chunk = this.getChunk(blockTransaction.getOriginal().getPosition());
-                        if (chunk.isPresent()) {
-                            IMixinChunk spongeChunk = (IMixinChunk) chunk.get();
-                            BlockPos pos = VecHelper.toBlockPos(blockTransaction.getOriginal().getPosition());
-                            Optional<User> user = spongeChunk.getBlockPosOwner(pos);
-                            if (user.isPresent()) {
-                                cause = cause.with(user);
-                            }
+                if (captureType == CaptureType.BREAK) {
+                    if (StaticMixinHelper.processingPlayer != null && StaticMixinHelper.processingPacket instanceof C07PacketPlayerDigging) {
+                        C07PacketPlayerDigging digPacket = (C07PacketPlayerDigging) StaticMixinHelper.processingPacket;
+                        if (digPacket.getStatus() == C07PacketPlayerDigging.Action.START_DESTROY_BLOCK) {
+                            destructDrop = true;
+                            Cause newCause = Cause.of(firstSnapshot); // make the first destroyed block root
+                            newCause = newCause.with(cause.all());
+                            cause = newCause;
                         }
                     }
+                }
 
-                    if (captureType == CaptureType.BREAK) {
-                        if (StaticMixinHelper.processingPlayer != null && StaticMixinHelper.processingPacket instanceof C07PacketPlayerDigging) {
-                            C07PacketPlayerDigging digPacket = (C07PacketPlayerDigging) StaticMixinHelper.processingPacket;
-                            if (digPacket.getStatus() == C07PacketPlayerDigging.Action.START_DESTROY_BLOCK) {
-                                destructDrop = true;
-                                Cause newCause = Cause.of(blockTransactions.get(0).getOriginal()); // make the first destroyed block root
-                                newCause = newCause.with(cause.all());
-                                cause = newCause;
-                            }
-                        }
+                C08PacketPlayerBlockPlacement packet = null;
+
+                if (StaticMixinHelper.processingPacket instanceof C08PacketPlayerBlockPlacement) { // player place
+                    packet = (C08PacketPlayerBlockPlacement) StaticMixinHelper.processingPacket;
+                }
+
+                Class<? extends ChangeBlockEvent> eventClass = getChangeBlockEventClass(captureType);
+                if (!eventManager.hasListeners(eventClass)) {
+                    // Nothing can observe or change the transactions, so only apply the block changes
+                    eventManager.recordSkippedEvent(eventClass);
+                    List<BlockSnapshot> originals = reuseBuffers ? this.capturedOriginalsBuffer : new ArrayList<BlockSnapshot>(capturedBlockList.size());
+                    for (BlockSnapshot snapshot : capturedBlockList) {
+                        originals.add(snapshot);
+                    }
+                    capturedBlockList.clear();
+
+                    if (this.capturedEntityItems.size() > 0) {
+                        handleDroppedItems(cause, (List<Entity>)(List<?>)this.capturedEntityItems, invalidTransactions, captureType == CaptureType.BREAK ? true : destructDrop);
+                    }
 
+                    markAndNotifyCapturedBlocks(originals, captureType, cause);
+                    originals.clear();
+                } else {
+                    ImmutableList<Transaction<BlockSnapshot>> blockTransactions;
+                    ImmutableList.Builder<Transaction<BlockSnapshot>> builder = new ImmutableList.Builder<Transaction<BlockSnapshot>>();
+
+                    Iterator<BlockSnapshot> iterator = capturedBlockList.iterator();
+                    while (iterator.hasNext()) {
+                        BlockSnapshot blockSnapshot = iterator.next();
+                        BlockPos pos = VecHelper.toBlockPos(blockSnapshot.getPosition());
+                        IBlockState currentState = getBlockState(pos);
+                        builder.add(new Transaction<BlockSnapshot>(blockSnapshot, createSpongeBlockSnapshot(currentState, pos, 0)));
+                        iterator.remove();
+                    }
+                    blockTransactions = builder.build();
+
+                    ChangeBlockEvent event = null;
+                    if (captureType == CaptureType.BREAK) {
                         event = SpongeEventFactory.createChangeBlockEventBreak(Sponge.getGame(), cause, (World) world, blockTransactions);
                     } else if (captureType == CaptureType.FLUID) {
                         event = SpongeEventFactory.createChangeBlockEventFluid(Sponge.getGame(), cause, (World) world, blockTransactions);
@@ -784,13 +866,7 @@ public void handlePostTickCaptures(Cause cause) {
                         event = SpongeEventFactory.createChangeBlockEventPlace(Sponge.getGame(), cause, (World) world, blockTransactions);
                     }
 
-                    Sponge.getGame().getEventManager().post(event);
-
-                    C08PacketPlayerBlockPlacement packet = null;
-
-                    if (StaticMixinHelper.processingPacket instanceof C08PacketPlayerBlockPlacement) { // player place
-                        packet = (C08PacketPlayerBlockPlacement) StaticMixinHelper.processingPacket;
-                    }
+                    eventManager.post(event);
 
                     for (Transaction<BlockSnapshot> transaction : event.getTransactions()) {
                         if (!transaction.isValid()) {
@@ -815,21 +891,21 @@ public void handlePostTickCaptures(Cause cause) {
                         this.capturedEntities.clear();
                         this.capturedEntityItems.clear();
                         return;
-                    } else {
-                        if (invalidTransactions.size() > 0) {
-                            handlePostPlayerBlockEvent(captureType, StaticMixinHelper.processingPlayer, world, invalidTransactions);
-                        }
-
-                        if (this.capturedEntityItems.size() > 0) {
-                            handleDroppedItems(cause, (List<Entity>)(List<?>)this.capturedEntityItems, invalidTransactions, captureType == CaptureType.BREAK ? true : destructDrop);
-                        }
+                    }
 
-                        markAndNotifyBlockPost(event.getTransactions(), captureType, cause);
+                    if (invalidTransactions.size() > 0) {
+                        handlePostPlayerBlockEvent(captureType, StaticMixinHelper.processingPlayer, world, invalidTransactions);
+                    }
 
-                        if (captureType == CaptureType.PLACE && StaticMixinHelper.processingPlayer != null && packet != null && packet.getStack() != null) {
-                            StaticMixinHelper.processingPlayer.addStat(StatList.objectUseStats[net.minecraft.item.Item.getIdFromItem(packet.getStack().getItem())], 1);
-                        }
+                    if (this.capturedEntityItems.size() > 0) {
+                        handleDroppedItems(cause, (List<Entity>)(List<?>)this.capturedEntityItems, invalidTransactions, captureType == CaptureType.BREAK ? true : destructDrop);
                     }
+
+                    markAndNotifyBlockPost(event.getTransactions(), captureType, cause);
+                }
+
+                if (captureType == CaptureType.PLACE && StaticMixinHelper.processingPlayer != null && packet != null && packet.getStack() != null) {
+                    StaticMixinHelper.processingPlayer.addStat(StatList.objectUseStats[net.minecraft.item.Item.getIdFromItem(packet.getStack().getItem())], 1);
                 }
             }
         }
@@ -856,6 +932,7 @@ public void handlePostTickCaptures(Cause cause) {
             for (List<Transaction<BlockSnapshot>> transactions : this.capturedSpongePopulators.values()) {
                 transactions.clear();
             }
+            this.capturedPopulatorTransactions = 0;
         }
 
         // Handle Player Toss
@@ -924,8 +1001,11 @@ private void sendItemChangeToPlayer(EntityPlayerMP player) {
     }
 
     private void handleDroppedItems(Cause cause, List<Entity> entities, List<Transaction<BlockSnapshot>> invalidTransactions, boolean destructItems) {
+        SpongeEventManager eventManager = Sponge.getSpongeEventManager();
+        Class<? extends DropItemEvent> eventClass = destructItems ? DropItemEvent.Destruct.class : DropItemEvent.Dispense.class;
+        boolean fireEvent = eventManager.hasListeners(eventClass);
         Iterator<Entity> iter = entities.iterator();
-        ImmutableList.Builder<EntitySnapshot> entitySnapshotBuilder = new ImmutableList.Builder<EntitySnapshot>();
+        ImmutableList.Builder<EntitySnapshot> entitySnapshotBuilder = fireEvent ? new ImmutableList.Builder<EntitySnapshot>() : null;
         while (iter.hasNext()) {
             Entity currentEntity = iter.next();
             if (cause.first(User.class).isPresent()) {
@@ -942,18 +1022,22 @@ private void handleDroppedItems(Cause cause, List<Entity> entities, List<Transac
                     setCreatorEntityNbt(((IMixinEntity)currentEntity).getSpongeData(), owner.get().getUniqueId());
                 }
             }
-            entitySnapshotBuilder.add(currentEntity.createSnapshot());
+            if (fireEvent) {
+                entitySnapshotBuilder.add(currentEntity.createSnapshot());
+            }
         }
 
         DropItemEvent event = null;
 
-        if (destructItems) {
+        if (!fireEvent) {
+            eventManager.recordSkippedEvent(eventClass);
+        } else if (destructItems) {
             event = SpongeEventFactory.createDropItemEventDestruct(Sponge.getGame(), cause, entities, entitySnapshotBuilder.build() , (World) this);
         } else {
             event = SpongeEventFactory.createDropItemEventDispense(Sponge.getGame(), cause, entities, entitySnapshotBuilder.build() , (World) this);
         }
 
-        if (!(Sponge.getGame().getEventManager().post(event))) {
+        if (event == null || !eventManager.post(event)) {
             // Handle player deaths
             if (cause.first(Player.class).isPresent()) {
                 EntityPlayerMP player = (EntityPlayerMP) cause.first(Player.class).get();
@@ -964,7 +1048,7 @@ private void handleDroppedItems(Cause cause, List<Entity> entities, List<Transac
                 }
             }
 
-            Iterator<Entity> iterator = event.getEntities().iterator();
+            Iterator<Entity> iterator = event != null ? event.getEntities().iterator() : entities.iterator();
             while (iterator.hasNext()) {
                 Entity entity = iterator.next();
                 boolean invalidSpawn = false;
@@ -1000,8 +1084,12 @@ private void handleDroppedItems(Cause cause, List<Entity> entities, List<Transac
     }
 
     private void handleEntitySpawns(Cause cause, List<Entity> entities, List<Transaction<BlockSnapshot>> invalidTransactions) {
+        SpongeEventManager eventManager = Sponge.getSpongeEventManager();
+        Class<? extends SpawnEntityEvent> eventClass = this.worldSpawnerRunning ? SpawnEntityEvent.Spawner.class
+                : this.chunkSpawnerRunning ? SpawnEntityEvent.ChunkLoad.class : SpawnEntityEvent.class;
+        boolean fireEvent = eventManager.hasListeners(eventClass);
         Iterator<Entity> iter = entities.iterator();
-        ImmutableList.Builder<EntitySnapshot> entitySnapshotBuilder = new ImmutableList.Builder<EntitySnapshot>();
+        ImmutableList.Builder<EntitySnapshot> entitySnapshotBuilder = fireEvent ? new ImmutableList.Builder<EntitySnapshot>() : null;
         while (iter.hasNext()) {
             Entity currentEntity = iter.next();
             if (cause.first(User.class).isPresent()) {
@@ -1018,12 +1106,16 @@ private void handleEntitySpawns(Cause cause, List<Entity> entities, List<Transac
                     setCreatorEntityNbt(((IMixinEntity)currentEntity).getSpongeData(), owner.get().getUniqueId());
                 }
             }
-            entitySnapshotBuilder.add(currentEntity.createSnapshot());
+            if (fireEvent) {
+                entitySnapshotBuilder.add(currentEntity.createSnapshot());
+            }
         }
 
         SpawnEntityEvent event = null;
 
-        if (this.worldSpawnerRunning) {
+        if (!fireEvent) {
+            eventManager.recordSkippedEvent(eventClass);
+        } else if (this.worldSpawnerRunning) {
             event = SpongeEventFactory.createSpawnEntityEventSpawner(Sponge.getGame(), cause, entities, entitySnapshotBuilder.build(), (World)(Object)this);
         } else if (this.chunkSpawnerRunning){
             event = SpongeEventFactory.createSpawnEntityEventChunkLoad(Sponge.getGame(), cause, entities, entitySnapshotBuilder.build(), (World)(Object)this);
@@ -1031,8 +1123,8 @@ private void handleEntitySpawns(Cause cause, List<Entity> entities, List<Transac
             event = SpongeEventFactory.createSpawnEntityEvent(Sponge.getGame(), cause, entities, entitySnapshotBuilder.build(), (World)(Object)this);
         }
 
-        if (!(Sponge.getGame().getEventManager().post(event))) {
-            Iterator<Entity> iterator = event.getEntities().iterator();
+        if (event == null || !eventManager.post(event)) {
+            Iterator<Entity> iterator = event != null ? event.getEntities().iterator() : entities.iterator();
             while (iterator.hasNext()) {
                 Entity entity = iterator.next();
                 boolean invalidSpawn = false;
@@ -1078,7 +1170,7 @@ private void setCreatorEntityNbt(NBTTagCompound nbt, UUID uuid) {
 
     @Override
     public Optional<BlockSnapshot> getCurrentTickBlock() {
-        return Optional.ofNullable(this.currentTickBlock);
+        return Optional.ofNullable(this.currentTickBlock.getSnapshot(this));
     }
 
     @Override
@@ -1153,7 +1245,7 @@ public void setProcessingCaptureCause(boolean flag) {
 
     @Override
     public void setCurrentTickBlock(BlockSnapshot snapshot) {
-        this.currentTickBlock = snapshot;
+        this.currentTickBlock.enter(snapshot);
     }
 
     private void markAndNotifyBlockPost(List<Transaction<BlockSnapshot>> transactions, CaptureType type, Cause cause) {
@@ -1168,56 +1260,79 @@ private void markAndNotifyBlockPost(List<Transaction<BlockSnapshot>> transaction
             SpongeBlockSnapshot oldBlockSnapshot = (SpongeBlockSnapshot)transaction.getOriginal();
             SpongeBlockSnapshot newBlockSnapshot = (SpongeBlockSnapshot)transaction.getFinal();
             SpongeHooks.logBlockAction(cause, (net.minecraft.world.World)(Object) this, type, transaction);
-            int updateFlag = oldBlockSnapshot.getUpdateFlag();
-            BlockPos pos = VecHelper.toBlockPos(oldBlockSnapshot.getPosition());
-            IBlockState originalState = (IBlockState)oldBlockSnapshot.getState();
-            IBlockState newState = (IBlockState)newBlockSnapshot.getState();
-            if (newState != null && !SpongeImplFactory.blockHasTileEntity(newState.getBlock(), newState)) { // Containers get placed automatically
-                this.currentTickOnBlockAdded = this.createSpongeBlockSnapshot(newState, pos, updateFlag);
-                newState.getBlock().onBlockAdded((net.minecraft.world.World)(Object)this, pos, newState);
-                if (this.capturedOnBlockAddedItems.size() > 0) {
-                    Cause blockCause = Cause.of(this.currentTickOnBlockAdded);
-                    if (this.captureTerrainGen) {
-                        net.minecraft.world.chunk.Chunk chunk = getChunkFromBlockCoords(pos);
-                        if (chunk != null && ((IMixinChunk) chunk).getCurrentPopulateCause() != null) {
-                            blockCause = blockCause.with(((IMixinChunk) chunk).getCurrentPopulateCause().all());
-                        }
+            markAndNotifyBlock(oldBlockSnapshot, (IBlockState)newBlockSnapshot.getState());
+        }
+    }
+
+    /**
+     * Applies the captured block changes without constructing any final
+     * snapshots or transactions, used if no event was fired for them.
+     */
+    private void markAndNotifyCapturedBlocks(List<BlockSnapshot> originals, CaptureType type, Cause cause) {
+        for (BlockSnapshot original : originals) {
+            SpongeBlockSnapshot oldBlockSnapshot = (SpongeBlockSnapshot) original;
+            IBlockState newState = getBlockState(VecHelper.toBlockPos(oldBlockSnapshot.getPosition()));
+            SpongeHooks.logBlockAction(cause, (net.minecraft.world.World)(Object) this, type, oldBlockSnapshot.getState(), (BlockState) newState);
+            markAndNotifyBlock(oldBlockSnapshot, newState);
+        }
+    }
+
+    private void markAndNotifyBlock(SpongeBlockSnapshot oldBlockSnapshot, @Nullable IBlockState newState) {
+        int updateFlag = oldBlockSnapshot.getUpdateFlag();
+        BlockPos pos = VecHelper.toBlockPos(oldBlockSnapshot.getPosition());
+        IBlockState originalState = (IBlockState)oldBlockSnapshot.getState();
+        if (newState != null && !SpongeImplFactory.blockHasTileEntity(newState.getBlock(), newState)) { // Containers get placed automatically
+            this.currentTickOnBlockAdded = this.createSpongeBlockSnapshot(newState, pos, updateFlag);
+            newState.getBlock().onBlockAdded((net.minecraft.world.World)(Object)this, pos, newState);
+            if (this.capturedOnBlockAddedItems.size() > 0) {
+                Cause blockCause = Cause.of(this.currentTickOnBlockAdded);
+                if (this.captureTerrainGen) {
+                    net.minecraft.world.chunk.Chunk chunk = getChunkFromBlockCoords(pos);
+                    if (chunk != null && ((IMixinChunk) chunk).getCurrentPopulateCause() != null) {
+                        blockCause = blockCause.with(((IMixinChunk) chunk).getCurrentPopulateCause().all());
                     }
-                    handleDroppedItems(blockCause, this.capturedOnBlockAddedItems, null, getBlockState(pos) != newState);
                 }
-                if (this.capturedOnBlockAddedEntities.size() > 0) {
-                    Cause blockCause = Cause.of(this.currentTickOnBlockAdded);
-                    if (this.captureTerrainGen) {
-                        net.minecraft.world.chunk.Chunk chunk = getChunkFromBlockCoords(pos);
-                        if (chunk != null && ((IMixinChunk) chunk).getCurrentPopulateCause() != null) {
-                            blockCause = blockCause.with(((IMixinChunk) chunk).getCurrentPopulateCause().all());
-                        }
+                handleDroppedItems(blockCause, this.capturedOnBlockAddedItems, null, getBlockState(pos) != newState);
+            }
+            if (this.capturedOnBlockAddedEntities.size() > 0) {
+                Cause blockCause = Cause.of(this.currentTickOnBlockAdded);
+                if (this.captureTerrainGen) {
+                    net.minecraft.world.chunk.Chunk chunk = getChunkFromBlockCoords(pos);
+                    if (chunk != null && ((IMixinChunk) chunk).getCurrentPopulateCause() != null) {
+                        blockCause = blockCause.with(((IMixinChunk) chunk).getCurrentPopulateCause().all());
                     }
-                    handleEntitySpawns(blockCause, this.capturedOnBlockAddedEntities, null);
                 }
-
-                this.currentTickOnBlockAdded = null;
+                handleEntitySpawns(blockCause, this.capturedOnBlockAddedEntities, null);
             }
 
-            markAndNotifyNeighbors(pos, null, originalState, newState, updateFlag);
+            this.currentTickOnBlockAdded = null;
         }
+
+        markAndNotifyNeighbors(pos, null, originalState, newState, updateFlag);
+    }
+
+    private static Class<? extends ChangeBlockEvent> getChangeBlockEventClass(CaptureType captureType) {
+        if (captureType == CaptureType.BREAK) {
+            return ChangeBlockEvent.Break.class;
+        } else if (captureType == CaptureType.FLUID) {
+            return ChangeBlockEvent.Fluid.class;
+        } else if (captureType == CaptureType.MODIFY) {
+            return ChangeBlockEvent.Modify.class;
+        } else if (captureType == CaptureType.PLACE) {
+            return ChangeBlockEvent.Place.class;
+        }
+        return ChangeBlockEvent.class;
     }
 
     @Override
     public SpongeBlockSnapshot createSpongeBlockSnapshot(IBlockState state, BlockPos pos, int updateFlag) {
         builder.reset();
-        Location<World> location = new Location<World>((World) this, VecHelper.toVector(pos));
         builder.blockState((BlockState) state)
-            .worldId(location.getExtent().getUniqueId())
-            .position(location.getBlockPosition());
+            .worldId(((World) this).getUniqueId())
+            .position(VecHelper.toVector(pos));
         net.minecraft.tileentity.TileEntity te = getTileEntity(pos);
-        NBTTagCompound nbt = null;
         if (te != null) {
-            nbt = new NBTTagCompound();
-            te.writeToNBT(nbt);
-        }
-        if (nbt != null) {
-            builder.unsafeNbt(nbt);
+            builder.tileEntity(te);
         }
 
         return new SpongeBlockSnapshot(builder, updateFlag);
@@ -1823,12 +1938,85 @@ public Collection<TileEntity> getTileEntities() {
         return Lists.newArrayList((List<TileEntity>) (Object) this.loadedTileEntityList);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public Collection<TileEntity> getTileEntities(Predicate<TileEntity> filter) {
-        return ((List<TileEntity>) (Object) this.loadedTileEntityList).stream()
-            .filter(filter)
-            .collect(Collectors.toList());
+        List<TileEntity> tileEntities = new ArrayList<TileEntity>();
+        for (int i = 0; i < this.loadedTileEntityList.size(); i++) {
+            TileEntity tileEntity = (TileEntity) this.loadedTileEntityList.get(i);
+            if (filter.test(tileEntity)) {
+                tileEntities.add(tileEntity);
+            }
+        }
+        return tileEntities;
+    }
+
+    private void checkMainThread() {
+        checkState(this.isRemote || MinecraftServer.getServer().isCallingFromMinecraftThread(),
+                "Loaded entities can only be viewed from the main thread");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Collection<Entity> getEntityView() {
+        checkMainThread();
+        return Collections.unmodifiableList((List<Entity>) (Object) this.loadedEntityList);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Collection<TileEntity> getTileEntityView() {
+        checkMainThread();
+        return Collections.unmodifiableList((List<TileEntity>) (Object) this.loadedTileEntityList);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Collection<TileEntity> getTileEntityView(TileEntityType type) {
+        checkNotNull(type, "type");
+        checkMainThread();
+        return (Collection<TileEntity>) (Object) this.tileEntityList.getByClass(type.getTileEntityType());
+    }
+
+    @Override
+    public void forEachEntity(Consumer<? super Entity> visitor) {
+        checkNotNull(visitor, "visitor");
+        checkMainThread();
+        for (int i = 0; i < this.loadedEntityList.size(); i++) {
+            visitor.accept((Entity) this.loadedEntityList.get(i));
+        }
+    }
+
+    @Override
+    public <T extends Entity> void forEachEntity(Class<T> type, Consumer<? super T> visitor) {
+        checkNotNull(type, "type");
+        checkNotNull(visitor, "visitor");
+        checkMainThread();
+        for (int i = 0; i < this.loadedEntityList.size(); i++) {
+            Object entity = this.loadedEntityList.get(i);
+            if (type.isInstance(entity)) {
+                visitor.accept(type.cast(entity));
+            }
+        }
+    }
+
+    @Override
+    public void forEachTileEntity(Consumer<? super TileEntity> visitor) {
+        checkNotNull(visitor, "visitor");
+        checkMainThread();
+        for (int i = 0; i < this.loadedTileEntityList.size(); i++) {
+            visitor.accept((TileEntity) this.loadedTileEntityList.get(i));
+        }
+    }
+
+    @Override
+    public void forEachTileEntity(TileEntityType type, Consumer<? super TileEntity> visitor) {
+        checkNotNull(type, "type");
+        checkNotNull(visitor, "visitor");
+        checkMainThread();
+        List<net.minecraft.tileentity.TileEntity> tileEntities = this.tileEntityList.getByClass(type.getTileEntityType());
+        for (int i = 0; i < tileEntities.size(); i++) {
+            visitor.accept((TileEntity) tileEntities.get(i));
+        }
     }
 
     @Override
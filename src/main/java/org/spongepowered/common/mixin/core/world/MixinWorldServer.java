@@ -36,6 +36,7 @@
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.WorldSettings;
+import net.minecraft.world.chunk.Chunk;
 import org.spongepowered.api.block.ScheduledBlockUpdate;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.event.cause.Cause;
@@ -55,8 +56,13 @@
 import org.spongepowered.common.interfaces.IMixinScoreboardSaveData;
 import org.spongepowered.common.interfaces.IMixinWorld;
 import org.spongepowered.common.interfaces.IMixinWorldInfo;
+import org.spongepowered.common.world.ScheduledUpdateSet;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
@@ -69,6 +75,16 @@ public abstract class MixinWorldServer extends MixinWorld {
     @Shadow public abstract boolean fireBlockEvent(BlockEventData event);
     @Shadow private Set<NextTickListEntry> pendingTickListEntriesHashSet;
     @Shadow private TreeSet<NextTickListEntry> pendingTickListEntriesTreeSet;
+    @Shadow private List<NextTickListEntry> pendingTickListEntriesThisTick;
+
+    private ScheduledUpdateSet scheduledUpdates;
+
+    @Inject(method = "<init>", at = @At("RETURN"))
+    public void onConstructScheduledUpdates(CallbackInfo ci) {
+        // Replace the (still empty) vanilla tree set with one that also indexes updates by position
+        this.scheduledUpdates = new ScheduledUpdateSet();
+        this.pendingTickListEntriesTreeSet = this.scheduledUpdates;
+    }
 
     @Inject(method = "createSpawnPosition(Lnet/minecraft/world/WorldSettings;)V", at = @At("HEAD"), cancellable = true)
     public void onCreateSpawnPosition(WorldSettings settings, CallbackInfo ci) {
@@ -106,47 +122,53 @@ public void onPostInit(CallbackInfoReturnable<World> ci) {
 
     @Redirect(method = "updateBlocks", at = @At(value = "INVOKE", target = "Lnet/minecraft/block/Block;randomTick(Lnet/minecraft/world/World;Lnet/minecraft/util/BlockPos;Lnet/minecraft/block/state/IBlockState;Ljava/util/Random;)V"))
     public void onUpdateBlocks(Block block, net.minecraft.world.World worldIn, BlockPos pos, IBlockState state, Random rand) {
-        if (this.isRemote || this.currentTickBlock != null) {
+        if (this.isRemote || this.currentTickBlock.isActive()) {
             block.randomTick(worldIn, pos, state, rand);
             return;
         }
 
         this.processingCaptureCause = true;
-        this.currentTickBlock = createSpongeBlockSnapshot(state, pos, 0);
+        this.currentTickBlock.enter(this, state, pos, 0);
         block.randomTick(worldIn, pos, state, rand);
-        handlePostTickCaptures(Cause.of(this.currentTickBlock));
-        this.currentTickBlock = null;
+        if (hasTickCaptures()) {
+            handlePostTickCaptures(Cause.of(this.currentTickBlock.getSnapshot(this)));
+        }
+        this.currentTickBlock.exit();
         this.processingCaptureCause = false;
     }
 
     @Redirect(method = "updateBlockTick", at = @At(value = "INVOKE", target="Lnet/minecraft/block/Block;updateTick(Lnet/minecraft/world/World;Lnet/minecraft/util/BlockPos;Lnet/minecraft/block/state/IBlockState;Ljava/util/Random;)V"))
     public void onUpdateBlockTick(Block block, net.minecraft.world.World worldIn, BlockPos pos, IBlockState state, Random rand) {
-        if (this.isRemote || this.currentTickBlock != null) {
+        if (this.isRemote || this.currentTickBlock.isActive()) {
             block.updateTick(worldIn, pos, state, rand);
             return;
         }
 
         this.processingCaptureCause = true;
-        this.currentTickBlock = createSpongeBlockSnapshot(state, pos, 0);
+        this.currentTickBlock.enter(this, state, pos, 0);
         block.updateTick(worldIn, pos, state, rand);
-        handlePostTickCaptures(Cause.of(this.currentTickBlock));
-        this.currentTickBlock = null;
+        if (hasTickCaptures()) {
+            handlePostTickCaptures(Cause.of(this.currentTickBlock.getSnapshot(this)));
+        }
+        this.currentTickBlock.exit();
         this.processingCaptureCause = false;
     }
  
     @Redirect(method = "tickUpdates", at = @At(value = "INVOKE", target = "Lnet/minecraft/block/Block;updateTick(Lnet/minecraft/world/World;Lnet/minecraft/util/BlockPos;"
             + "Lnet/minecraft/block/state/IBlockState;Ljava/util/Random;)V"))
     public void onUpdateTick(Block block, net.minecraft.world.World worldIn, BlockPos pos, IBlockState state, Random rand) {
-        if (this.isRemote || this.currentTickBlock != null) {
+        if (this.isRemote || this.currentTickBlock.isActive()) {
             block.updateTick(worldIn, pos, state, rand);
             return;
         }
 
         this.processingCaptureCause = true;
-        this.currentTickBlock = createSpongeBlockSnapshot(state, pos, 0);
+        this.currentTickBlock.enter(this, state, pos, 0);
         block.updateTick(worldIn, pos, state, rand);
-        handlePostTickCaptures(Cause.of(this.currentTickBlock));
-        this.currentTickBlock = null;
+        if (hasTickCaptures()) {
+            handlePostTickCaptures(Cause.of(this.currentTickBlock.getSnapshot(this)));
+        }
+        this.currentTickBlock.exit();
         this.processingCaptureCause = false;
     }
 
@@ -155,26 +177,68 @@ public void onUpdateTick(Block block, net.minecraft.world.World worldIn, BlockPo
     public boolean onFireBlockEvent(net.minecraft.world.WorldServer worldIn, BlockEventData event) {
         IBlockState currentState = worldIn.getBlockState(event.getPosition());
         this.processingCaptureCause = true;
-        this.currentTickBlock = createSpongeBlockSnapshot(currentState, event.getPosition(), 3);
+        this.currentTickBlock.enter(this, currentState, event.getPosition(), 3);
         boolean result = fireBlockEvent(event);
-        this.handlePostTickCaptures(Cause.of(this.currentTickBlock));
-        this.currentTickBlock = null;
+        if (hasTickCaptures()) {
+            this.handlePostTickCaptures(Cause.of(this.currentTickBlock.getSnapshot(this)));
+        }
+        this.currentTickBlock.exit();
         this.processingCaptureCause = false;
         return result;
     }
 
     @Override
     public Collection<ScheduledBlockUpdate> getScheduledUpdates(int x, int y, int z) {
-        BlockPos position = new BlockPos(x, y, z);
         ImmutableList.Builder<ScheduledBlockUpdate> builder = ImmutableList.builder();
-        for (NextTickListEntry sbu : this.pendingTickListEntriesTreeSet) {
-            if (sbu.position.equals(position)) {
-                builder.add((ScheduledBlockUpdate) sbu);
-            }
+        for (NextTickListEntry sbu : this.scheduledUpdates.getEntriesAt(new BlockPos(x, y, z))) {
+            builder.add((ScheduledBlockUpdate) sbu);
         }
         return builder.build();
     }
 
+    /**
+     * Looks up the pending updates around a chunk through the position index,
+     * instead of scanning every pending update of the world as vanilla does
+     * whenever a chunk is saved or unloaded. The bounds match vanilla.
+     */
+    @Inject(method = "getPendingBlockUpdates(Lnet/minecraft/world/chunk/Chunk;Z)Ljava/util/List;", at = @At("HEAD"), cancellable = true)
+    public void onGetPendingBlockUpdates(Chunk chunk, boolean remove, CallbackInfoReturnable<List<NextTickListEntry>> cir) {
+        int minX = (chunk.xPosition << 4) - 2;
+        int minZ = (chunk.zPosition << 4) - 2;
+        int maxX = minX + 16 + 2;
+        int maxZ = minZ + 16 + 2;
+
+        List<NextTickListEntry> pending = new ArrayList<NextTickListEntry>();
+        for (int chunkX = chunk.xPosition - 1; chunkX <= chunk.xPosition + 1; chunkX++) {
+            for (int chunkZ = chunk.zPosition - 1; chunkZ <= chunk.zPosition + 1; chunkZ++) {
+                this.scheduledUpdates.collectEntriesInChunk(chunkX, chunkZ, minX, minZ, maxX, maxZ, pending);
+            }
+        }
+        Collections.sort(pending);
+
+        if (remove) {
+            for (NextTickListEntry entry : pending) {
+                this.pendingTickListEntriesHashSet.remove(entry);
+                this.scheduledUpdates.remove(entry);
+            }
+        }
+
+        for (Iterator<NextTickListEntry> iterator = this.pendingTickListEntriesThisTick.iterator(); iterator.hasNext();) {
+            NextTickListEntry entry = iterator.next();
+            BlockPos pos = entry.position;
+            if (pos.getX() >= minX && pos.getX() < maxX && pos.getZ() >= minZ && pos.getZ() < maxZ) {
+                if (remove) {
+                    this.pendingTickListEntriesHashSet.remove(entry);
+                    iterator.remove();
+                }
+                pending.add(entry);
+            }
+        }
+
+        // Vanilla returns null rather than an empty list
+        cir.setReturnValue(pending.isEmpty() ? null : pending);
+    }
+
     private NextTickListEntry tmpScheduledObj;
 
     @Redirect(method = "updateBlockTick(Lnet/minecraft/util/BlockPos;Lnet/minecraft/block/Block;II)V",
@@ -24,73 +24,58 @@
  */
 package org.spongepowered.common.mixin.core.world.chunk.storage;
 
-import com.google.common.collect.Maps;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TShortIntHashMap;
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.nbt.NBTTagList;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.storage.AnvilChunkLoader;
+import net.minecraft.world.chunk.storage.RegionFileCache;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import org.spongepowered.asm.mixin.injection.callback.LocalCapture;
 import org.spongepowered.common.data.util.NbtDataUtil;
+import org.spongepowered.common.interfaces.IMixinAnvilChunkLoader;
 import org.spongepowered.common.interfaces.IMixinChunk;
 
-import java.util.Map;
+import java.io.File;
 
 @Mixin(AnvilChunkLoader.class)
-public class MixinAnvilChunkLoader {
+public class MixinAnvilChunkLoader implements IMixinAnvilChunkLoader {
+
+    @Shadow @Final private File chunkSaveLocation;
+
+    @Override
+    public boolean chunkExistsOnDisk(int chunkX, int chunkZ) {
+        // Check for the file first, so no region files are created for regions that were never generated
+        File regionFile = new File(new File(this.chunkSaveLocation, "region"), "r." + (chunkX >> 5) + "." + (chunkZ >> 5) + ".mca");
+        return regionFile.exists() && RegionFileCache.createOrLoadRegionFile(this.chunkSaveLocation, chunkX, chunkZ)
+                .isChunkSaved(chunkX & 31, chunkZ & 31);
+    }
 
     @Inject(method = "writeChunkToNBT", at = @At(value = "RETURN"))
     public void onWriteChunkToNBT(net.minecraft.world.chunk.Chunk chunkIn, World worldIn, NBTTagCompound compound, CallbackInfo ci) {
         IMixinChunk chunk = (IMixinChunk) chunkIn;
 
-        // Add tracked block positions
-        if (chunk.getTrackedShortPlayerPositions().size() > 0 || chunk.getTrackedIntPlayerPositions().size() > 0) {
+        TShortIntHashMap trackedShortPlayerPositions = chunk.getTrackedShortPlayerPositions();
+        TIntIntHashMap trackedIntPlayerPositions = chunk.getTrackedIntPlayerPositions();
+        if (trackedShortPlayerPositions.size() > 0 || trackedIntPlayerPositions.size() > 0) {
             NBTTagCompound trackedNbt = new NBTTagCompound();
-            NBTTagList positions = new NBTTagList();
-            trackedNbt.setTag(NbtDataUtil.SPONGE_BLOCK_POS_TABLE, positions);
             compound.setTag(NbtDataUtil.SPONGE_DATA, trackedNbt);
-
-            for (Map.Entry<Short, Integer> mapEntry : chunk.getTrackedShortPlayerPositions().entrySet()) {
-                Short pos = mapEntry.getKey();
-                Integer uuidIndex = mapEntry.getValue();
-                NBTTagCompound valueNbt = new NBTTagCompound();
-                valueNbt.setInteger("uuid", uuidIndex);
-                valueNbt.setShort("pos", pos);
-                positions.appendTag(valueNbt);
-            }
-
-            for (Map.Entry<Integer, Integer> mapEntry : chunk.getTrackedIntPlayerPositions().entrySet()) {
-                Integer pos = mapEntry.getKey();
-                Integer uuidIndex = mapEntry.getValue();
-                NBTTagCompound valueNbt = new NBTTagCompound();
-                valueNbt.setInteger("uuid", uuidIndex);
-                valueNbt.setInteger("ipos", pos);
-                positions.appendTag(valueNbt);
-            }
+            NbtDataUtil.writeTrackedBlockOwners(trackedShortPlayerPositions, trackedIntPlayerPositions, trackedNbt);
         }
     }
 
     @Inject(method = "readChunkFromNBT", at = @At(value = "INVOKE", target = "Lnet/minecraft/nbt/NBTTagCompound;getIntArray(Ljava/lang/String;)[I", shift = At.Shift.BEFORE), locals = LocalCapture.CAPTURE_FAILHARD)
     public void onReadChunkFromNBT(World worldIn, NBTTagCompound compound, CallbackInfoReturnable<net.minecraft.world.chunk.Chunk> ci, int chunkX, int chunkZ, net.minecraft.world.chunk.Chunk chunkIn) {
         if (compound.hasKey(NbtDataUtil.SPONGE_DATA)) {
-            Map<Integer, Integer> trackedIntPlayerPositions = Maps.newHashMap();
-            Map<Short, Integer> trackedShortPlayerPositions = Maps.newHashMap();
-            NBTTagList positions = compound.getCompoundTag(NbtDataUtil.SPONGE_DATA).getTagList(NbtDataUtil.SPONGE_BLOCK_POS_TABLE, 10);
             IMixinChunk chunk = (IMixinChunk) chunkIn;
-            for (int i = 0; i < positions.tagCount(); i++) {
-                NBTTagCompound valueNbt = positions.getCompoundTagAt(i);
-                if (valueNbt.hasKey("pos")) {
-                    trackedShortPlayerPositions.put(valueNbt.getShort("pos"), valueNbt.getInteger("uuid"));
-                } else {
-                    trackedIntPlayerPositions.put(valueNbt.getInteger("ipos"), valueNbt.getInteger("uuid"));
-                }
-            }
-            chunk.setTrackedIntPlayerPositions(trackedIntPlayerPositions);
-            chunk.setTrackedShortPlayerPositions(trackedShortPlayerPositions);
+            NbtDataUtil.readTrackedBlockOwners(compound.getCompoundTag(NbtDataUtil.SPONGE_DATA), chunk.getTrackedShortPlayerPositions(),
+                    chunk.getTrackedIntPlayerPositions());
         }
     }
 }
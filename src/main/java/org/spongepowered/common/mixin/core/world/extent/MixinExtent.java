@@ -58,6 +58,8 @@
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.common.util.gen.ByteArrayImmutableBiomeBuffer;
 import org.spongepowered.common.util.gen.ByteArrayMutableBiomeBuffer;
+import org.spongepowered.common.util.gen.ConcurrentByteArrayMutableBiomeBuffer;
+import org.spongepowered.common.util.gen.ConcurrentShortArrayMutableBlockBuffer;
 import org.spongepowered.common.util.gen.ShortArrayImmutableBlockBuffer;
 import org.spongepowered.common.util.gen.ShortArrayMutableBlockBuffer;
 import org.spongepowered.common.world.extent.ExtentBufferUtil;
@@ -191,6 +193,8 @@ public MutableBiomeArea getBiomeCopy(StorageType type) {
                 return new ByteArrayMutableBiomeBuffer(ExtentBufferUtil.copyToArray(this, getBiomeMin(), getBiomeMax(), getBiomeSize()),
                     getBiomeMin(), getBiomeSize());
             case THREAD_SAFE:
+                return new ConcurrentByteArrayMutableBiomeBuffer(ExtentBufferUtil.copyToArray(this, getBiomeMin(), getBiomeMax(), getBiomeSize()),
+                    getBiomeMin(), getBiomeSize());
             default:
                 throw new UnsupportedOperationException(type.name());
         }
@@ -240,6 +244,8 @@ public MutableBlockVolume getBlockCopy(StorageType type) {
                 return new ShortArrayMutableBlockBuffer(ExtentBufferUtil.copyToArray(this, getBlockMin(), getBlockMax(), getBlockSize()),
                     getBlockMin(), getBlockSize());
             case THREAD_SAFE:
+                return new ConcurrentShortArrayMutableBlockBuffer(ExtentBufferUtil.copyToArray(this, getBlockMin(), getBlockMax(), getBlockSize()),
+                    getBlockMin(), getBlockSize());
             default:
                 throw new UnsupportedOperationException(type.name());
         }
@@ -24,27 +24,25 @@
  */
 package org.spongepowered.common.service.scheduler;
 
-import org.spongepowered.api.service.scheduler.Task;
 import org.spongepowered.common.Sponge;
+import org.spongepowered.common.configuration.SpongeConfig;
 
-import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import javax.annotation.Nullable;
+
 public class AsyncScheduler extends SchedulerBase {
 
-    // Adjustable timeout for pending Tasks
-    private long minimumTimeout = Long.MAX_VALUE;
-    private long lastProcessingTimestamp;
     // Locking mechanism
     private final Lock lock = new ReentrantLock();
     private final Condition condition = this.lock.newCondition();
-    // The dynamic thread pooling executor of asynchronous tasks.
-    private ExecutorService executor;
+    // The bounded thread pooling executor of asynchronous tasks, created
+    // once the first task runs so the config is loaded.
+    @Nullable private volatile AsyncTaskExecutor executor;
 
     AsyncScheduler() {
         super(ScheduledTask.TaskSynchronicity.ASYNCHRONOUS);
@@ -56,78 +54,47 @@ public class AsyncScheduler extends SchedulerBase {
     }
 
     private void mainLoop() {
-        this.executor = Executors.newCachedThreadPool();
-        this.lastProcessingTimestamp = System.nanoTime();
         while (true) {
-            recalibrateMinimumTimeout();
             this.runTick();
         }
     }
 
-    private void recalibrateMinimumTimeout() {
-        this.lock.lock();
-        try {
-            Set<Task> tasks = this.getScheduledTasks();
-            this.minimumTimeout = Long.MAX_VALUE;
-            long now = System.nanoTime();
-            for (Task tmpTask : tasks) {
-                ScheduledTask task = (ScheduledTask) tmpTask;
-                // Recalibrate the wait delay for processing tasks before new
-                // tasks cause the scheduler to process pending tasks.
-                if (task.offset == 0 && task.period == 0) {
-                    this.minimumTimeout = 0;
-                }
-                // The time since the task last executed or was added to the map
-                long timeSinceLast = now - task.getTimestamp();
-
-                if (task.offset > 0 && task.getState() == ScheduledTask.ScheduledTaskState.WAITING) {
-                    // There is an offset and the task hasn't run yet
-                    this.minimumTimeout = Math.min(task.offset - timeSinceLast, this.minimumTimeout);
-                }
-                if (task.period > 0 && task.getState().isActive) {
-                    // The task repeats and has run after the initial delay
-                    this.minimumTimeout = Math.min(task.period - timeSinceLast, this.minimumTimeout);
-                }
-                if (this.minimumTimeout <= 0) {
-                    break;
-                }
-            }
-            if (!tasks.isEmpty()) {
-                long latency = System.nanoTime() - this.lastProcessingTimestamp;
-                this.minimumTimeout -= (latency <= 0) ? 0 : latency;
-                this.minimumTimeout = (this.minimumTimeout < 0) ? 0 : this.minimumTimeout;
-            }
-        } finally {
-            this.lock.unlock();
-        }
-    }
-
     @Override
     protected void preTick() {
+        // The lock is only held while waiting. Due tasks are processed without
+        // it, so a task that runs on this thread because the executor rejected
+        // it can't block threads adding tasks, like the main thread.
         this.lock.lock();
         try {
-            this.condition.await(this.minimumTimeout, TimeUnit.NANOSECONDS);
+            // Tasks are added while holding the lock, so none can be missed between
+            // computing the timeout and waiting
+            long timeout = this.getNanosUntilNextTask();
+            if (timeout > 0) {
+                this.condition.await(timeout, TimeUnit.NANOSECONDS);
+            }
         } catch (InterruptedException ignored) {
             // The taskMap has been modified; there is work to do.
             // Continue on without handling the Exception.
         } catch (IllegalMonitorStateException e) {
             Sponge.getLogger().error("The scheduler internal state machine suffered a catastrophic error", e);
+        } finally {
+            this.lock.unlock();
         }
     }
 
     @Override
-    protected void postTick() {
-        this.lastProcessingTimestamp = System.nanoTime();
-    }
-
-    @Override
-    protected void finallyPostTick() {
-        this.lock.unlock();
+    protected boolean executeTaskRunnable(ScheduledTask task, Runnable runnable) {
+        AsyncTaskExecutor executor = this.executor;
+        if (executor == null) {
+            SpongeConfig.SchedulerCategory config = Sponge.getGlobalConfig().getConfig().getScheduler();
+            executor = this.executor = new AsyncTaskExecutor(config.getAsyncCoreThreads(), config.getAsyncMaxThreads(),
+                    config.getAsyncQueueSize(), AsyncTaskExecutor.RejectionPolicy.fromConfig(config.getAsyncRejectionPolicy()));
+        }
+        return executor.execute(task, runnable);
     }
 
-    @Override
-    protected void executeTaskRunnable(Runnable runnable) {
-        this.executor.submit(runnable);
+    Optional<AsyncTaskExecutor> getExecutor() {
+        return Optional.ofNullable(this.executor);
     }
 
     @Override
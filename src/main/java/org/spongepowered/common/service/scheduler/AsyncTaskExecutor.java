@@ -0,0 +1,215 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.scheduler;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.Sponge;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the tasks of the {@link AsyncScheduler} on a thread pool and keeps
+ * statistics of the tasks of each plugin.
+ *
+ * <p>Without a queue every task submitted while all threads are busy starts
+ * a new thread, up to the max size. With a queue, additional threads are only
+ * started once the queue is full. Tasks submitted while all threads are busy
+ * and the queue is full are handled by the {@link RejectionPolicy}.</p>
+ */
+public final class AsyncTaskExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final RejectionPolicy rejectionPolicy;
+    private final ConcurrentMap<PluginContainer, PluginTasks> tasks = Maps.newConcurrentMap();
+
+    AsyncTaskExecutor(int coreThreads, int maxThreads, int queueSize, RejectionPolicy rejectionPolicy) {
+        checkArgument(coreThreads >= 0, "coreThreads must not be negative");
+        checkArgument(maxThreads > 0 && maxThreads >= coreThreads, "maxThreads must be positive and at least coreThreads");
+        checkArgument(queueSize >= 0, "queueSize must not be negative");
+        this.rejectionPolicy = rejectionPolicy;
+        BlockingQueue<Runnable> queue = queueSize == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queueSize);
+        this.executor = new ThreadPoolExecutor(coreThreads, maxThreads, 60, TimeUnit.SECONDS, queue,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("Sponge Async Scheduler Worker #%d")
+                        .setDaemon(true)
+                        .build(),
+                rejectionPolicy == RejectionPolicy.CALLER_RUNS ? new ThreadPoolExecutor.CallerRunsPolicy() : new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    boolean execute(ScheduledTask task, Runnable runnable) {
+        PluginTasks pluginTasks = getPluginTasks(task.getOwner());
+        pluginTasks.queued.incrementAndGet();
+        try {
+            this.executor.execute(() -> {
+                pluginTasks.queued.decrementAndGet();
+                pluginTasks.active.incrementAndGet();
+                Thread thread = Thread.currentThread();
+                String threadName = thread.getName();
+                thread.setName(threadName + " (" + task.getOwner().getId() + ": " + task.getName() + ")");
+                long start = System.nanoTime();
+                try {
+                    runnable.run();
+                } finally {
+                    pluginTasks.runNanos.add(System.nanoTime() - start);
+                    pluginTasks.completed.increment();
+                    pluginTasks.active.decrementAndGet();
+                    thread.setName(threadName);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pluginTasks.queued.decrementAndGet();
+            pluginTasks.rejected.increment();
+            if (this.rejectionPolicy == RejectionPolicy.ABORT) {
+                Sponge.getLogger().error("The async task {} owned by {} was rejected, all async scheduler threads are busy and the queue is full",
+                        task.getName(), task.getOwner());
+            } else {
+                Sponge.getLogger().debug("The async task {} owned by {} was discarded, all async scheduler threads are busy and the queue is full",
+                        task.getName(), task.getOwner());
+            }
+            return false;
+        }
+    }
+
+    private PluginTasks getPluginTasks(PluginContainer plugin) {
+        PluginTasks pluginTasks = this.tasks.get(plugin);
+        if (pluginTasks == null) {
+            pluginTasks = this.tasks.computeIfAbsent(plugin, key -> new PluginTasks());
+        }
+        return pluginTasks;
+    }
+
+    /**
+     * Gets the current task statistics of all plugins that scheduled async
+     * tasks.
+     *
+     * @return The task statistics by plugin
+     */
+    public Map<PluginContainer, TaskStats> getTaskStats() {
+        ImmutableMap.Builder<PluginContainer, TaskStats> builder = ImmutableMap.builder();
+        for (Map.Entry<PluginContainer, PluginTasks> entry : this.tasks.entrySet()) {
+            PluginTasks pluginTasks = entry.getValue();
+            builder.put(entry.getKey(), new TaskStats(pluginTasks.active.get(), pluginTasks.queued.get(), pluginTasks.completed.sum(),
+                    pluginTasks.rejected.sum(), pluginTasks.runNanos.sum()));
+        }
+        return builder.build();
+    }
+
+    public int getPoolSize() {
+        return this.executor.getPoolSize();
+    }
+
+    public int getMaxPoolSize() {
+        return this.executor.getMaximumPoolSize();
+    }
+
+    public enum RejectionPolicy {
+        /**
+         * Runs the task on the scheduler thread, which delays all other
+         * async tasks until it completes.
+         */
+        CALLER_RUNS,
+        /**
+         * Drops the task.
+         */
+        DISCARD,
+        /**
+         * Drops the task and logs an error.
+         */
+        ABORT;
+
+        static RejectionPolicy fromConfig(String name) {
+            try {
+                return valueOf(name.toUpperCase().replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                Sponge.getLogger().warn("Unknown async task rejection policy {}, using caller-runs", name);
+                return CALLER_RUNS;
+            }
+        }
+    }
+
+    private static final class PluginTasks {
+
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger queued = new AtomicInteger();
+        final LongAdder completed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder runNanos = new LongAdder();
+
+    }
+
+    public static final class TaskStats {
+
+        private final int active;
+        private final int queued;
+        private final long completed;
+        private final long rejected;
+        private final long runNanos;
+
+        TaskStats(int active, int queued, long completed, long rejected, long runNanos) {
+            this.active = active;
+            this.queued = queued;
+            this.completed = completed;
+            this.rejected = rejected;
+            this.runNanos = runNanos;
+        }
+
+        public int getActive() {
+            return this.active;
+        }
+
+        public int getQueued() {
+            return this.queued;
+        }
+
+        public long getCompleted() {
+            return this.completed;
+        }
+
+        public long getRejected() {
+            return this.rejected;
+        }
+
+        public long getAverageNanos() {
+            return this.completed == 0 ? 0 : this.runNanos / this.completed;
+        }
+
+    }
+
+}
@@ -24,6 +24,7 @@
  */
 package org.spongepowered.common.service.scheduler;
 
+import co.aikar.timings.Timing;
 import com.google.common.base.Objects;
 import org.spongepowered.api.plugin.PluginContainer;
 import org.spongepowered.api.service.scheduler.Task;
@@ -32,6 +33,8 @@
 import java.util.function.Consumer;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.Nullable;
+
 /**
  * An internal representation of a {@link Task} created by a plugin.
  */
@@ -44,6 +47,9 @@ public class ScheduledTask implements Task {
     private final PluginContainer owner;
     private final Consumer<Task> consumer;
     private long timestamp;
+    private long deadline;
+    private long queueSequence;
+    @Nullable private Timing timing;
     private ScheduledTaskState state;
     private final UUID id;
     private final String name;
@@ -176,6 +182,34 @@ void setTimestamp(long timestamp) {
         this.timestamp = timestamp;
     }
 
+    /**
+     * Gets the execution timestamp the task is ordered by while it is queued
+     * in its scheduler.
+     *
+     * @return The queued execution timestamp
+     */
+    long getDeadline() {
+        return this.deadline;
+    }
+
+    long getQueueSequence() {
+        return this.queueSequence;
+    }
+
+    void setDeadline(long deadline, long queueSequence) {
+        this.deadline = deadline;
+        this.queueSequence = queueSequence;
+    }
+
+    @Nullable
+    Timing getTiming() {
+        return this.timing;
+    }
+
+    void setTiming(Timing timing) {
+        this.timing = timing;
+    }
+
     ScheduledTaskState getState() {
         return this.state;
     }
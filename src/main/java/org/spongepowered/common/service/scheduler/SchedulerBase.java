@@ -30,15 +30,34 @@
 import org.spongepowered.api.service.scheduler.Task;
 import org.spongepowered.common.Sponge;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 abstract class SchedulerBase {
 
+    // Tasks with the same deadline run in the order they were queued
+    private static final Comparator<ScheduledTask> DEADLINE_ORDER = Comparator.comparingLong(ScheduledTask::getDeadline)
+            .thenComparingLong(ScheduledTask::getQueueSequence);
+
     // The simple queue of all pending (and running) ScheduledTasks
     private final Map<UUID, ScheduledTask> taskMap = Maps.newConcurrentMap();
+    // Tasks added since the last tick, moved into the deadline queues by the ticking thread
+    private final Queue<ScheduledTask> addedTasks = new ConcurrentLinkedQueue<ScheduledTask>();
+    // The pending tasks ordered by the timestamp they are due at, one queue per clock.
+    // Cancelled tasks are only removed once they reach the head of their queue.
+    private final PriorityQueue<ScheduledTask> tickQueue = new PriorityQueue<ScheduledTask>(DEADLINE_ORDER);
+    private final PriorityQueue<ScheduledTask> timeQueue = new PriorityQueue<ScheduledTask>(DEADLINE_ORDER);
+    // Repeating tasks that ran this tick, queued again after the tick so they run at most once per tick
+    private final List<ScheduledTask> rescheduledTasks = new ArrayList<ScheduledTask>();
+    private long queueSequence;
     private long sequenceNumber = 0L;
     private final String taskNameFmt;
 
@@ -50,6 +69,27 @@ protected String nextName(PluginContainer plugin) {
         return String.format(this.taskNameFmt, plugin.getId(), this.sequenceNumber++);
     }
 
+    /**
+     * Gets whether the timestamp of the task is counted in ticks rather than
+     * in nanoseconds. This depends on the state of the task, as the delay and
+     * the interval of a task may use different units.
+     *
+     * @param task The task
+     * @return True if the timestamp of the task is in ticks
+     */
+    protected boolean isTickBased(ScheduledTask task) {
+        return false;
+    }
+
+    /**
+     * Gets the current tick of this scheduler.
+     *
+     * @return The current tick
+     */
+    protected long getTickTimestamp() {
+        return 0L;
+    }
+
     /**
      * Gets the timestamp to update the timestamp of a task. This method is task
      * sensitive to support different timestamp types i.e. real time and ticks.
@@ -62,7 +102,7 @@ protected String nextName(PluginContainer plugin) {
      * @return Timestamp for the task
      */
     protected long getTimestamp(ScheduledTask task) {
-        return System.nanoTime();
+        return this.isTickBased(task) ? this.getTickTimestamp() : System.nanoTime();
     }
 
     /**
@@ -74,6 +114,7 @@ protected long getTimestamp(ScheduledTask task) {
     protected void addTask(ScheduledTask task) {
         task.setTimestamp(this.getTimestamp(task));
         this.taskMap.put(task.getUniqueId(), task);
+        this.addedTasks.add(task);
     }
 
     /**
@@ -86,28 +127,83 @@ protected void removeTask(ScheduledTask task) {
     }
 
     protected Optional<Task> getTask(UUID id) {
-        return Optional.<Task>ofNullable(this.taskMap.get(id));
+        ScheduledTask task = this.taskMap.get(id);
+        if (task == null || task.getState() == ScheduledTask.ScheduledTaskState.CANCELED) {
+            return Optional.empty();
+        }
+        return Optional.<Task>of(task);
     }
 
     protected Set<Task> getScheduledTasks() {
-        synchronized (this.taskMap) {
-            return Sets.<Task>newHashSet(this.taskMap.values());
+        Set<Task> tasks = Sets.newHashSet();
+        for (ScheduledTask task : this.taskMap.values()) {
+            if (task.getState() != ScheduledTask.ScheduledTaskState.CANCELED) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Gets the number of nanoseconds until the next task that isn't counted
+     * in ticks is due. Must only be called from the ticking thread.
+     *
+     * @return The nanoseconds until the next task is due, or
+     *     {@link Long#MAX_VALUE} if there are no such tasks
+     */
+    protected long getNanosUntilNextTask() {
+        if (!this.addedTasks.isEmpty()) {
+            return 0L;
+        }
+        ScheduledTask next = this.timeQueue.peek();
+        if (next == null) {
+            return Long.MAX_VALUE;
         }
+        return Math.max(0L, next.getDeadline() - System.nanoTime());
     }
 
     /**
-     * Process all tasks in the map.
+     * Process all tasks that are due.
      */
     protected final void runTick() {
         this.preTick();
         try {
-            this.taskMap.values().forEach(this::processTask);
+            ScheduledTask task;
+            while ((task = this.addedTasks.poll()) != null) {
+                this.enqueueTask(task);
+            }
+            this.processDueTasks(this.tickQueue, this.getTickTimestamp());
+            this.processDueTasks(this.timeQueue, System.nanoTime());
             this.postTick();
+            for (int i = 0; i < this.rescheduledTasks.size(); i++) {
+                this.enqueueTask(this.rescheduledTasks.get(i));
+            }
+            this.rescheduledTasks.clear();
         } finally {
             this.finallyPostTick();
         }
     }
 
+    private void enqueueTask(ScheduledTask task) {
+        if (task.getState() == ScheduledTask.ScheduledTaskState.CANCELED) {
+            this.removeTask(task);
+            return;
+        }
+        task.setDeadline(task.nextExecutionTimestamp(), this.queueSequence++);
+        (this.isTickBased(task) ? this.tickQueue : this.timeQueue).add(task);
+    }
+
+    private void processDueTasks(PriorityQueue<ScheduledTask> queue, long now) {
+        ScheduledTask task;
+        while ((task = queue.peek()) != null) {
+            if (task.getState() != ScheduledTask.ScheduledTaskState.CANCELED && task.getDeadline() > now) {
+                break;
+            }
+            queue.poll();
+            this.processTask(task);
+        }
+    }
+
     /**
      * Fired when the scheduler begins to tick, before any tasks are processed.
      */
@@ -115,7 +211,8 @@ protected void preTick() {
     }
 
     /**
-     * Fired when the scheduler has processed all tasks.
+     * Fired when the scheduler has processed all due tasks, before repeating
+     * tasks are queued again.
      */
     protected void postTick() {
     }
@@ -128,7 +225,7 @@ protected void finallyPostTick() {
     }
 
     /**
-     * Processes the task.
+     * Processes a task that is due or was cancelled.
      *
      * @param task The task to process
      */
@@ -139,29 +236,28 @@ protected void processTask(ScheduledTask task) {
             this.removeTask(task);
             return;
         }
-        long threshold = Long.MAX_VALUE;
-        // Figure out if we start a delayed Task after threshold ticks or, start
-        // it after the interval (period) of the repeating task parameter.
-        if (task.getState() == ScheduledTask.ScheduledTaskState.WAITING) {
-            threshold = task.offset;
-        } else if (task.getState() == ScheduledTask.ScheduledTaskState.RUNNING) {
-            threshold = task.period;
+        // The previous execution of a repeating task hasn't started yet, try
+        // again after another interval.
+        if (task.getState() == ScheduledTask.ScheduledTaskState.SWITCHING) {
+            task.setTimestamp(this.getTimestamp(task));
+            this.rescheduledTasks.add(task);
+            return;
         }
-        // This moment is 'now'
-        long now = this.getTimestamp(task);
-        // So, if the current time minus the timestamp of the task is greater
-        // than the delay to wait before starting the task, then start the task.
         // Repeating tasks get a reset-timestamp each time they are set RUNNING
         // If the task has a period of 0 (zero) this task will not repeat, and
         // is removed after we start it.
-        if (threshold <= (now - task.getTimestamp())) {
-            task.setState(ScheduledTask.ScheduledTaskState.SWITCHING);
-            task.setTimestamp(this.getTimestamp(task));
-            startTask(task);
-            // If task is one time shot, remove it from the map.
-            if (task.period == 0L) {
-                this.removeTask(task);
-            }
+        task.setState(ScheduledTask.ScheduledTaskState.SWITCHING);
+        task.setTimestamp(this.getTimestamp(task));
+        if (!this.startTask(task) && task.getState() == ScheduledTask.ScheduledTaskState.SWITCHING) {
+            // The runnable was rejected and will never mark the task as
+            // running, retry a repeating task after the next interval instead
+            // of postponing it forever.
+            task.setState(ScheduledTask.ScheduledTaskState.RUNNING);
+        }
+        if (task.period == 0L) {
+            this.removeTask(task);
+        } else {
+            this.rescheduledTasks.add(task);
         }
     }
 
@@ -169,9 +265,10 @@ protected void processTask(ScheduledTask task) {
      * Begin the execution of a task. Exceptions are caught and logged.
      *
      * @param task The task to start
+     * @return False if the task was rejected and won't run
      */
-    protected void startTask(final ScheduledTask task) {
-        this.executeTaskRunnable(() -> {
+    protected boolean startTask(final ScheduledTask task) {
+        return this.executeTaskRunnable(task, () -> {
             task.setState(ScheduledTask.ScheduledTaskState.RUNNING);
             try {
                 task.getConsumer().accept(task);
@@ -185,8 +282,10 @@ protected void startTask(final ScheduledTask task) {
     /**
      * Actually run the runnable that will begin the task
      *
+     * @param task The task the runnable belongs to
      * @param runnable The runnable to run
+     * @return False if the runnable was rejected and won't run
      */
-    protected abstract void executeTaskRunnable(Runnable runnable);
+    protected abstract boolean executeTaskRunnable(ScheduledTask task, Runnable runnable);
 
 }
@@ -34,8 +34,10 @@
 import org.spongepowered.api.service.scheduler.Task;
 import org.spongepowered.api.service.scheduler.TaskBuilder;
 import org.spongepowered.common.Sponge;
+import org.spongepowered.common.configuration.SpongeConfig;
 
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -178,10 +180,41 @@ void submit(ScheduledTask task) {
         getDelegate(task).addTask(task);
     }
 
+    /**
+     * Gets the executor of async tasks, if any async task has run yet.
+     *
+     * @return The async task executor
+     */
+    public Optional<AsyncTaskExecutor> getAsyncTaskExecutor() {
+        return this.asyncScheduler.getExecutor();
+    }
+
+    /**
+     * Gets the queue of runnables that are run on the main thread at the
+     * start of the next tick.
+     *
+     * @return The main thread queue
+     */
+    public SyncTaskQueue getSyncTaskQueue() {
+        return this.syncScheduler.getTaskQueue();
+    }
+
+    /**
+     * Gets the statistics of the sync tasks of each plugin that exceeded the
+     * tick budget. Must only be called from the main thread.
+     *
+     * @return The sync task statistics by plugin
+     */
+    public Map<PluginContainer, SyncScheduler.TaskStats> getSyncTaskStats() {
+        return this.syncScheduler.getTaskStats();
+    }
+
     /**
      * Ticks the synchronous scheduler.
      */
     public void tickSyncScheduler() {
+        SpongeConfig.SchedulerCategory config = Sponge.getGlobalConfig().getConfig().getScheduler();
+        this.syncScheduler.setTickBudget((long) (config.getSyncTickBudget() * 1000000), config.getSyncDeferrablePlugins());
         this.syncScheduler.tick();
     }
 
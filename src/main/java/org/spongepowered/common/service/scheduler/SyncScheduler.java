@@ -24,10 +24,31 @@
  */
 package org.spongepowered.common.service.scheduler;
 
+import co.aikar.timings.SpongeTimings;
+import co.aikar.timings.Timing;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.spongepowered.api.plugin.PluginContainer;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+
 public class SyncScheduler extends SchedulerBase {
 
     // The number of ticks elapsed since this scheduler began.
     private volatile long counter = 0L;
+    // The time the tasks of a tick may take before deferrable tasks are
+    // moved to the next tick, 0 if there is no budget
+    private long tickBudget;
+    private List<String> deferrablePlugins = ImmutableList.of();
+    private long tickStart;
+    // Due deferrable tasks by plugin, the plugins are served in turns
+    private final Map<PluginContainer, ArrayDeque<ScheduledTask>> deferredTasks = Maps.newHashMap();
+    private final ArrayDeque<PluginContainer> deferredPlugins = new ArrayDeque<PluginContainer>();
+    private final Map<PluginContainer, TaskStats> taskStats = Maps.newHashMap();
+    private final SyncTaskQueue taskQueue = new SyncTaskQueue();
 
     SyncScheduler() {
         super(ScheduledTask.TaskSynchronicity.SYNCHRONOUS);
@@ -41,29 +62,158 @@ void tick() {
         this.runTick();
     }
 
+    /**
+     * Sets the time budget of the tasks of each tick.
+     *
+     * @param tickBudget The budget in nanoseconds, 0 for no budget
+     * @param deferrablePlugins The ids of the plugins whose tasks may be
+     *     moved to the next tick once the budget is used up
+     */
+    void setTickBudget(long tickBudget, List<String> deferrablePlugins) {
+        this.tickBudget = tickBudget;
+        this.deferrablePlugins = deferrablePlugins;
+    }
+
     @Override
-    protected long getTimestamp(ScheduledTask task) {
-        if (task.getState() == ScheduledTask.ScheduledTaskState.WAITING) {
-            // The timestamp is based on the initial offset
-            if (task.delayIsTicks) {
-                return this.counter;
-            } else {
-                return super.getTimestamp(task);
+    protected boolean isTickBased(ScheduledTask task) {
+        // The delay is used until the task has run once, then the interval
+        return task.getState().isActive ? task.intervalIsTicks : task.delayIsTicks;
+    }
+
+    @Override
+    protected long getTickTimestamp() {
+        return this.counter;
+    }
+
+    SyncTaskQueue getTaskQueue() {
+        return this.taskQueue;
+    }
+
+    /**
+     * Gets the current time that the tick budget is measured with.
+     *
+     * @return The current time in nanoseconds
+     */
+    long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    protected void preTick() {
+        this.tickStart = this.nanoTime();
+        this.taskQueue.drain();
+    }
+
+    @Override
+    protected void processTask(ScheduledTask task) {
+        if (this.tickBudget > 0 && task.getState() != ScheduledTask.ScheduledTaskState.CANCELED
+                && this.deferrablePlugins.contains(task.getOwner().getId())) {
+            ArrayDeque<ScheduledTask> tasks = this.deferredTasks.get(task.getOwner());
+            if (tasks == null) {
+                tasks = new ArrayDeque<ScheduledTask>();
+                this.deferredTasks.put(task.getOwner(), tasks);
+                this.deferredPlugins.add(task.getOwner());
             }
-        } else if (task.getState().isActive) {
-            // The timestamp is based on the period
-            if (task.intervalIsTicks) {
-                return this.counter;
+            tasks.add(task);
+        } else {
+            super.processTask(task);
+        }
+    }
+
+    @Override
+    protected void postTick() {
+        // Tasks that don't fit into the budget stay queued, so they run
+        // before the tasks that become due in the next tick
+        long end = this.tickStart + this.tickBudget;
+        while (!this.deferredPlugins.isEmpty() && (this.tickBudget <= 0 || this.nanoTime() < end)) {
+            PluginContainer plugin = this.deferredPlugins.poll();
+            ArrayDeque<ScheduledTask> tasks = this.deferredTasks.get(plugin);
+            ScheduledTask task = tasks.poll();
+            if (tasks.isEmpty()) {
+                this.deferredTasks.remove(plugin);
             } else {
-                return super.getTimestamp(task);
+                this.deferredPlugins.add(plugin);
             }
+            super.processTask(task);
+        }
+        for (Map.Entry<PluginContainer, ArrayDeque<ScheduledTask>> entry : this.deferredTasks.entrySet()) {
+            getTaskStats(entry.getKey()).deferred += entry.getValue().size();
         }
-        return 0L;
     }
 
     @Override
-    protected void executeTaskRunnable(Runnable runnable) {
-        runnable.run();
+    protected boolean executeTaskRunnable(ScheduledTask task, Runnable runnable) {
+        Timing timing = task.getTiming();
+        if (timing == null) {
+            timing = SpongeTimings.getPluginTaskTimings(task, task.period);
+            task.setTiming(timing);
+        }
+        long start = this.nanoTime();
+        timing.startTiming();
+        try {
+            runnable.run();
+        } finally {
+            timing.stopTiming();
+            long end = this.nanoTime();
+            long budgetEnd = this.tickStart + this.tickBudget;
+            if (this.tickBudget > 0 && start < budgetEnd && end >= budgetEnd) {
+                getTaskStats(task.getOwner()).overruns++;
+            }
+        }
+        return true;
+    }
+
+    private TaskStats getTaskStats(PluginContainer plugin) {
+        TaskStats stats = this.taskStats.get(plugin);
+        if (stats == null) {
+            stats = new TaskStats();
+            this.taskStats.put(plugin, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Gets the budget statistics of all plugins whose tasks exceeded the
+     * tick budget. Must only be called from the main thread.
+     *
+     * @return The budget statistics by plugin
+     */
+    Map<PluginContainer, TaskStats> getTaskStats() {
+        ImmutableMap.Builder<PluginContainer, TaskStats> builder = ImmutableMap.builder();
+        for (Map.Entry<PluginContainer, TaskStats> entry : this.taskStats.entrySet()) {
+            TaskStats stats = new TaskStats();
+            stats.deferred = entry.getValue().deferred;
+            stats.overruns = entry.getValue().overruns;
+            builder.put(entry.getKey(), stats);
+        }
+        return builder.build();
+    }
+
+    public static final class TaskStats {
+
+        long deferred;
+        long overruns;
+
+        /**
+         * Gets how many times a task of the plugin was moved to the next
+         * tick because the tick budget was used up.
+         *
+         * @return The number of deferred task runs
+         */
+        public long getDeferred() {
+            return this.deferred;
+        }
+
+        /**
+         * Gets how many times a task of the plugin used up the rest of the
+         * tick budget.
+         *
+         * @return The number of overruns
+         */
+        public long getOverruns() {
+            return this.overruns;
+        }
+
     }
 
 }
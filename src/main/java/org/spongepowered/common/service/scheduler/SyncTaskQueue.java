@@ -0,0 +1,147 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.scheduler;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.Maps;
+import org.spongepowered.common.Sponge;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A queue of runnables that are run on the main thread at the start of the
+ * next tick. Unlike tasks, queued runnables have no name, id or entry in the
+ * task map, so any thread can hand off work to the main thread cheaply.
+ *
+ * <p>Runnables queued with a key are coalesced: if a runnable with an equal
+ * key is still waiting, it is replaced and only the latest one runs, in the
+ * place of the first one.</p>
+ */
+public final class SyncTaskQueue {
+
+    // Holds runnables and the keys of coalesced runnables. The depth is
+    // incremented before adding, so it never drops below zero.
+    private final Queue<Object> queue = new ConcurrentLinkedQueue<Object>();
+    private final ConcurrentMap<Object, Runnable> coalesced = Maps.newConcurrentMap();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replaced = new LongAdder();
+
+    SyncTaskQueue() {
+    }
+
+    /**
+     * Queues the runnable to run on the main thread.
+     *
+     * @param runnable The runnable
+     */
+    public void execute(Runnable runnable) {
+        checkNotNull(runnable, "runnable");
+        this.depth.incrementAndGet();
+        this.queue.add(runnable);
+    }
+
+    /**
+     * Queues the runnable to run on the main thread, replacing the runnable
+     * waiting with an equal key if there is one.
+     *
+     * @param key The key, e.g. the entity the runnable updates
+     * @param runnable The runnable
+     */
+    public void execute(Object key, Runnable runnable) {
+        checkNotNull(key, "key");
+        if (this.coalesced.put(key, checkNotNull(runnable, "runnable")) == null) {
+            this.depth.incrementAndGet();
+            this.queue.add(new CoalescedKey(key));
+        } else {
+            this.replaced.increment();
+        }
+    }
+
+    /**
+     * Runs the runnables that were queued before this call. Runnables queued
+     * while draining run in the next tick.
+     */
+    void drain() {
+        for (int remaining = this.depth.get(); remaining > 0; remaining--) {
+            Object entry = this.queue.poll();
+            if (entry == null) {
+                break;
+            }
+            this.depth.decrementAndGet();
+            Runnable runnable = entry instanceof CoalescedKey ? this.coalesced.remove(((CoalescedKey) entry).key) : (Runnable) entry;
+            try {
+                runnable.run();
+            } catch (Throwable t) {
+                Sponge.getLogger().error("The Scheduler tried to run the queued runnable {}, but an error occured.", runnable, t);
+            }
+            this.executed.increment();
+        }
+    }
+
+    /**
+     * Gets the number of runnables waiting for the next tick.
+     *
+     * @return The queue depth
+     */
+    public int getDepth() {
+        return this.depth.get();
+    }
+
+    /**
+     * Gets the number of runnables that were run.
+     *
+     * @return The number of run runnables
+     */
+    public long getExecuted() {
+        return this.executed.sum();
+    }
+
+    /**
+     * Gets the number of runnables that were replaced by a later runnable
+     * with an equal key before they ran.
+     *
+     * @return The number of replaced runnables
+     */
+    public long getReplaced() {
+        return this.replaced.sum();
+    }
+
+    private static final class CoalescedKey {
+
+        final Object key;
+
+        CoalescedKey(Object key) {
+            this.key = key;
+        }
+
+    }
+
+}
@@ -31,6 +31,8 @@
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.MathHelper;
 import org.spongepowered.api.data.manipulator.mutable.DisplayNameData;
 import org.spongepowered.api.data.manipulator.mutable.entity.ExperienceHolderData;
 import org.spongepowered.api.data.manipulator.mutable.entity.GameModeData;
@@ -64,6 +66,7 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -71,6 +74,8 @@
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 /**
  * A resolver that acts like Vanilla Minecraft in many regards.
  */
@@ -83,6 +88,8 @@ public class SelectorResolver {
     private static final Set<ArgumentType<?>> LOCATION_BASED_ARGUMENTS;
     private static final Function<Number, Double> TO_DOUBLE = input -> input.doubleValue();
     private static final Collection<SelectorType> INFINITE_TYPES = ImmutableSet.of(SelectorTypes.ALL_ENTITIES, SelectorTypes.ALL_PLAYERS);
+    // Entities are only moved to another chunk section when they are ticked, like in World#getEntitiesWithinAABB
+    private static final double MAX_ENTITY_RADIUS = 2.0;
 
     static {
         ImmutableSet.Builder<ArgumentType<?>> builder = ImmutableSet.builder();
@@ -108,16 +115,20 @@ private static Vector3d positionFromSource(CommandSource origin) {
         return null;
     }
 
-    private static <I, R> Predicate<I> requireTypePredicate(Class<I> inputType, final Class<R> requiredType) {
-        return requiredType::isInstance;
-    }
-
     private final Collection<Extent> extents;
     private final Vector3d position;
     private final Optional<CommandSource> original;
     private final Selector selector;
     private final Predicate<Entity> selectorFilter;
+    private final Predicate<Entity> teamFilter;
     private final boolean alwaysUsePosition;
+    private final Vector3d center;
+    private final Vector3d boundsMin;
+    private final Vector3d boundsMax;
+    private final double radiusMinSquared;
+    private final double radiusMaxSquared;
+    private final boolean playersOnly;
+    private final Comparator<Entity> byDistance = Comparator.comparingDouble(this::distanceSquared);
 
     public SelectorResolver(Collection<? extends Extent> extents, Selector selector, boolean force) {
         this(extents, null, null, selector, force);
@@ -137,67 +148,107 @@ private SelectorResolver(Collection<? extends Extent> extents, Vector3d position
         this.position = position == null ? ORIGIN : position;
         this.original = Optional.ofNullable(original);
         this.selector = checkNotNull(selector);
-        this.selectorFilter = makeFilter();
+        this.selectorFilter = selector instanceof SpongeSelector ? ((SpongeSelector) selector).getFilter() : compileFilter(selector);
+        this.teamFilter = makeTeamFilter();
         this.alwaysUsePosition = force;
+        this.center = getPositionOrDefault(this.position, ArgumentTypes.POSITION);
+        this.playersOnly = isPlayerOnlySelector(selector);
+
+        // The box that the radius and dimension filters limit entities to
+        Vector3d min = Vector3d.ONE.mul(Double.NEGATIVE_INFINITY);
+        Vector3d max = Vector3d.ONE.mul(Double.POSITIVE_INFINITY);
+        Optional<Integer> radiusMin = selector.get(ArgumentTypes.RADIUS.minimum());
+        Optional<Integer> radiusMax = selector.get(ArgumentTypes.RADIUS.maximum());
+        this.radiusMinSquared = radiusMin.isPresent() ? (double) radiusMin.get() * radiusMin.get() : Double.NEGATIVE_INFINITY;
+        this.radiusMaxSquared = radiusMax.isPresent() ? (double) radiusMax.get() * radiusMax.get() : Double.POSITIVE_INFINITY;
+        if (radiusMax.isPresent()) {
+            min = min.max(this.center.sub(radiusMax.get(), radiusMax.get(), radiusMax.get()));
+            max = max.min(this.center.add(radiusMax.get(), radiusMax.get(), radiusMax.get()));
+        }
+        Vector3d boxCorner = this.center.add(getPositionOrDefault(ORIGIN, ArgumentTypes.DIMENSION));
+        Vector3d boxMin = this.center.min(boxCorner);
+        Vector3d boxMax = this.center.max(boxCorner);
+        if (selector.has(ArgumentTypes.DIMENSION.x())) {
+            min = new Vector3d(Math.max(min.getX(), boxMin.getX()), min.getY(), min.getZ());
+            max = new Vector3d(Math.min(max.getX(), boxMax.getX()), max.getY(), max.getZ());
+        }
+        if (selector.has(ArgumentTypes.DIMENSION.y())) {
+            min = new Vector3d(min.getX(), Math.max(min.getY(), boxMin.getY()), min.getZ());
+            max = new Vector3d(max.getX(), Math.min(max.getY(), boxMax.getY()), max.getZ());
+        }
+        if (selector.has(ArgumentTypes.DIMENSION.z())) {
+            min = new Vector3d(min.getX(), min.getY(), Math.max(min.getZ(), boxMin.getZ()));
+            max = new Vector3d(max.getX(), max.getY(), Math.min(max.getZ(), boxMax.getZ()));
+        }
+        this.boundsMin = min;
+        this.boundsMax = max;
     }
 
-    private Predicate<Entity> makeFilter() {
-        // for easier reading
-        final Selector sel = this.selector;
-        Vector3d position = getPositionOrDefault(this.position, ArgumentTypes.POSITION);
+    /**
+     * Creates the filter for the arguments of the selector that do not depend
+     * on the position or the extents it is resolved in. The filters are
+     * ordered from cheap to expensive, so that the data lookups only happen
+     * for entities that passed all other checks.
+     *
+     * <p>The filter is stateless, so {@link SpongeSelector} compiles it once
+     * and reuses it for every resolution.</p>
+     *
+     * @param selector The selector
+     * @return The filter
+     */
+    static Predicate<Entity> compileFilter(Selector selector) {
         List<Predicate<Entity>> filters = Lists.newArrayList();
-        addTypeFilters(filters);
-        addDimensionFilters(position, filters);
-        addRadiusFilters(position, filters);
-        addLevelFilters(filters);
-        addGamemodeFilters(filters);
-        addNameFilters(filters);
-        addRotationFilters(filters);
-        addTeamFilters(filters);
-        addScoreFilters(filters);
-        SelectorType selectorType = sel.getType();
-        Optional<Invertible<EntityType>> type = sel.getArgument(ArgumentTypes.ENTITY_TYPE);
+        addTypeFilters(selector, filters);
+        addRotationFilters(selector, filters);
+        addGamemodeFilters(selector, filters);
+        addLevelFilters(selector, filters);
+        addNameFilters(selector, filters);
+        addScoreFilters(selector, filters);
+        if (filters.isEmpty()) {
+            return entity -> true;
+        }
+        if (filters.size() == 1) {
+            return filters.get(0);
+        }
+        return Functional.predicateAnd(filters);
+    }
+
+    private static boolean isPlayerOnlySelector(Selector selector) {
+        SelectorType selectorType = selector.getType();
+        Optional<Invertible<EntityType>> type = selector.getArgument(ArgumentTypes.ENTITY_TYPE);
         // isn't an ALL_ENTITIES selector or it is a RANDOM selector for only players
-        boolean isPlayerOnlySelector =
-            selectorType == SelectorTypes.ALL_PLAYERS || selectorType == SelectorTypes.NEAREST_PLAYER
+        return selectorType == SelectorTypes.ALL_PLAYERS || selectorType == SelectorTypes.NEAREST_PLAYER
                 || (selectorType == SelectorTypes.RANDOM && type.isPresent() && !type.get().isInverted()
                 && type.get().getValue() != EntityTypes.PLAYER);
-        if (isPlayerOnlySelector) {
-            // insert at the start so it applies first
-            filters.add(0, requireTypePredicate(Entity.class, Player.class));
-        }
-        return Functional.predicateAnd(filters);
     }
 
-    private void addDimensionFilters(final Vector3d position, List<Predicate<Entity>> filters) {
-        Selector sel = this.selector;
-        Vector3d boxDimensions = getPositionOrDefault(ORIGIN, ArgumentTypes.DIMENSION);
-        Vector3d det1 = position;
-        Vector3d det2 = position.add(boxDimensions);
-        final Vector3d boxMin = det1.min(det2);
-        final Vector3d boxMax = det1.max(det2);
-        if (sel.has(ArgumentTypes.DIMENSION.x())) {
-            filters.add(input -> {
-                Vector3d pos = input.getLocation().getPosition();
-                return pos.getX() >= boxMin.getX() && pos.getX() <= boxMax.getX();
-            });
+    /**
+     * Tests whether the entity matches the selector. The type and position
+     * checks run first, as they are the cheapest and most selective.
+     *
+     * @param entity The entity to test
+     * @return Whether the entity matches
+     */
+    private boolean matches(Entity entity) {
+        if (this.playersOnly && !(entity instanceof Player)) {
+            return false;
         }
-        if (sel.has(ArgumentTypes.DIMENSION.y())) {
-            filters.add(input -> {
-                Vector3d pos = input.getLocation().getPosition();
-                return pos.getY() >= boxMin.getY() && pos.getY() <= boxMax.getY();
-            });
+        net.minecraft.entity.Entity handle = (net.minecraft.entity.Entity) entity;
+        if (handle.posX < this.boundsMin.getX() || handle.posX > this.boundsMax.getX()
+                || handle.posY < this.boundsMin.getY() || handle.posY > this.boundsMax.getY()
+                || handle.posZ < this.boundsMin.getZ() || handle.posZ > this.boundsMax.getZ()) {
+            return false;
         }
-        if (sel.has(ArgumentTypes.DIMENSION.z())) {
-            filters.add(input -> {
-                Vector3d pos = input.getLocation().getPosition();
-                return pos.getZ() >= boxMin.getZ() && pos.getZ() <= boxMax.getZ();
-            });
+        if (this.radiusMinSquared > Double.NEGATIVE_INFINITY || this.radiusMaxSquared < Double.POSITIVE_INFINITY) {
+            double distanceSquared = distanceSquared(entity);
+            if (distanceSquared < this.radiusMinSquared || distanceSquared > this.radiusMaxSquared) {
+                return false;
+            }
         }
+        return this.selectorFilter.test(entity) && (this.teamFilter == null || this.teamFilter.test(entity));
     }
 
-    private void addGamemodeFilters(List<Predicate<Entity>> filters) {
-        Selector sel = this.selector;
+    private static void addGamemodeFilters(Selector sel, List<Predicate<Entity>> filters) {
         Optional<GameMode> gamemode = sel.get(ArgumentTypes.GAME_MODE);
         // If the gamemode is NOT_SET, that means accept any
         if (gamemode.isPresent() && gamemode.get() != GameModes.NOT_SET) {
@@ -209,8 +260,7 @@ private void addGamemodeFilters(List<Predicate<Entity>> filters) {
         }
     }
 
-    private void addLevelFilters(List<Predicate<Entity>> filters) {
-        Selector sel = this.selector;
+    private static void addLevelFilters(Selector sel, List<Predicate<Entity>> filters) {
         Optional<Integer> levelMin = sel.get(ArgumentTypes.LEVEL.minimum());
         Optional<Integer> levelMax = sel.get(ArgumentTypes.LEVEL.maximum());
         if (levelMin.isPresent()) {
@@ -229,8 +279,7 @@ private void addLevelFilters(List<Predicate<Entity>> filters) {
         }
     }
 
-    private void addNameFilters(List<Predicate<Entity>> filters) {
-        Selector sel = this.selector;
+    private static void addNameFilters(Selector sel, List<Predicate<Entity>> filters) {
         Optional<Argument.Invertible<String>> nameOpt = sel.getArgument(ArgumentTypes.NAME);
         if (nameOpt.isPresent()) {
             final String name = nameOpt.get().getValue();
@@ -242,24 +291,7 @@ private void addNameFilters(List<Predicate<Entity>> filters) {
         }
     }
 
-    private void addRadiusFilters(final Vector3d position, List<Predicate<Entity>> filters) {
-        final Selector sel = this.selector;
-        Optional<Integer> radiusMin = sel.get(ArgumentTypes.RADIUS.minimum());
-        Optional<Integer> radiusMax = sel.get(ArgumentTypes.RADIUS.maximum());
-        if (radiusMin.isPresent()) {
-            int radMin = radiusMin.get();
-            final int radMinSquared = radMin * radMin;
-            filters.add(input -> input.getLocation().getPosition().distanceSquared(position) >= radMinSquared);
-        }
-        if (radiusMax.isPresent()) {
-            int radMax = radiusMax.get();
-            final int radMaxSquared = radMax * radMax;
-            filters.add(input -> input.getLocation().getPosition().distanceSquared(position) <= radMaxSquared);
-        }
-    }
-
-    private void addRotationFilters(List<Predicate<Entity>> filters) {
-        Selector sel = this.selector;
+    private static void addRotationFilters(Selector sel, List<Predicate<Entity>> filters) {
         // If the Z's are uncommented, don't forget to implement them
         // Optional<Double> rotMinZ = sel.get(ArgumentTypes.ROTATION.minimum().z());
         // Optional<Double> rotMaxZ = sel.get(ArgumentTypes.ROTATION.maximum().z());
@@ -285,14 +317,26 @@ private void addRotationFilters(List<Predicate<Entity>> filters) {
         }
     }
 
-    private void addScoreFilters(List<Predicate<Entity>> filters) {
-        Selector sel = this.selector;
+    private static void addScoreFilters(Selector sel, List<Predicate<Entity>> filters) {
         sel.getArguments();
     }
 
-    private void addTeamFilters(List<Predicate<Entity>> filters) {
-        Selector sel = this.selector;
-        Optional<Invertible<String>> teamOpt = sel.getArgument(ArgumentTypes.TEAM);
+    private static void addTypeFilters(Selector sel, List<Predicate<Entity>> filters) {
+        Optional<Argument.Invertible<EntityType>> typeOpt = sel.getArgument(ArgumentTypes.ENTITY_TYPE);
+        if (typeOpt.isPresent()) {
+            Argument.Invertible<EntityType> typeArg = typeOpt.get();
+            final boolean inverted = typeArg.isInverted();
+            final EntityType type = typeArg.getValue();
+            filters.add(input -> inverted ^ input.getType() == type);
+        }
+    }
+
+    @Nullable
+    private Predicate<Entity> makeTeamFilter() {
+        Optional<Invertible<String>> teamOpt = this.selector.getArgument(ArgumentTypes.TEAM);
+        if (!teamOpt.isPresent()) {
+            return null;
+        }
         Collection<World> worlds = Lists.newArrayList();
         for (Extent e : this.extents) {
             if (e instanceof World) {
@@ -301,45 +345,20 @@ private void addTeamFilters(List<Predicate<Entity>> filters) {
                 worlds.add(((Chunk) e).getWorld());
             }
         }
-        if (teamOpt.isPresent() && !worlds.isEmpty()) {
-            Invertible<String> teamArg = teamOpt.get();
-            final boolean inverted = teamArg.isInverted();
-            ImmutableSet.Builder<Team> teamBuilder = ImmutableSet.builder();
-            for (World w : worlds) {
-                teamBuilder.addAll(asSet(w.getScoreboard().getTeam(teamArg.getValue())));
-            }
-            final Collection<Team> teams = teamBuilder.build();
-                filters.add(new Predicate<Entity>() {
-
-                @Override
-                public boolean test(Entity input) {
-                    if (input instanceof TeamMember) {
-                        return inverted ^ collectMembers(teams).contains(((TeamMember) input).getTeamRepresentation());
-                    }
-                    return false;
-                }
-
-                private Collection<Text> collectMembers(Collection<Team> teams) {
-                    ImmutableSet.Builder<Text> users = ImmutableSet.builder();
-                    for (Team t : teams) {
-                        users.addAll(t.getMembers());
-                    }
-                    return users.build();
-                }
-
-            });
+        if (worlds.isEmpty()) {
+            return null;
         }
-    }
-
-    private void addTypeFilters(List<Predicate<Entity>> filters) {
-        Selector sel = this.selector;
-        Optional<Argument.Invertible<EntityType>> typeOpt = sel.getArgument(ArgumentTypes.ENTITY_TYPE);
-        if (typeOpt.isPresent()) {
-            Argument.Invertible<EntityType> typeArg = typeOpt.get();
-            final boolean inverted = typeArg.isInverted();
-            final EntityType type = typeArg.getValue();
-            filters.add(input -> inverted ^ input.getType() == type);
+        Invertible<String> teamArg = teamOpt.get();
+        final boolean inverted = teamArg.isInverted();
+        // Collect the members once, instead of for every tested entity
+        ImmutableSet.Builder<Text> memberBuilder = ImmutableSet.builder();
+        for (World w : worlds) {
+            for (Team team : asSet(w.getScoreboard().getTeam(teamArg.getValue()))) {
+                memberBuilder.addAll(team.getMembers());
+            }
         }
+        final Set<Text> members = memberBuilder.build();
+        return input -> input instanceof TeamMember && inverted ^ members.contains(((TeamMember) input).getTeamRepresentation());
     }
 
     private Vector3d getPositionOrDefault(Vector3d pos, ArgumentHolder.Vector3<?, ? extends Number> vecTypes) {
@@ -360,29 +379,130 @@ public Set<Entity> resolve() {
             defaultCount = 0;
         }
         int maxToSelect = this.selector.get(ArgumentTypes.COUNT).orElse(defaultCount);
-        Set<? extends Extent> extents = getExtentSet();
-        int count = 0;
+        // Like Vanilla, a negative count selects the farthest entities
+        int remaining = Math.abs(maxToSelect);
         ImmutableSet.Builder<Entity> entities = ImmutableSet.builder();
-        for (Extent extent : extents) {
-            Collection<Entity> allEntities = extent.getEntities();
+        for (Extent extent : getExtentSet()) {
+            List<Entity> matches;
             if (selectorType == SelectorTypes.RANDOM) {
-                List<Entity> entityList = new ArrayList<>(allEntities);
-                Collections.shuffle(entityList);
-                allEntities = entityList;
+                matches = findMatches(extent, 0);
+                Collections.shuffle(matches);
+            } else if (maxToSelect > 0) {
+                matches = findMatches(extent, remaining);
+                matches.sort(this.byDistance);
+            } else {
+                matches = findMatches(extent, 0);
+                matches.sort(maxToSelect < 0 ? this.byDistance.reversed() : this.byDistance);
             }
 
-            for (Entity e : allEntities) {
-                if (!this.selectorFilter.test(e)) {
-                    continue;
+            if (maxToSelect == 0) {
+                entities.addAll(matches);
+                continue;
+            }
+            int selected = Math.min(remaining, matches.size());
+            entities.addAll(matches.subList(0, selected));
+            remaining -= selected;
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return entities.build();
+    }
+
+    /**
+     * Finds the entities of the extent that match the selector, in no
+     * particular order. Only the chunks within the radius and dimensions of
+     * the selector are searched.
+     *
+     * @param extent The extent to search
+     * @param nearest If positive, the search stops once the given number of
+     *        nearest matches was found
+     * @return The matching entities
+     */
+    private List<Entity> findMatches(Extent extent, int nearest) {
+        List<Entity> matches = new ArrayList<>();
+        if (!(extent instanceof net.minecraft.world.World)) {
+            extent.getEntities().stream().filter(this::matches).forEach(matches::add);
+            return matches;
+        }
+
+        net.minecraft.world.World world = (net.minecraft.world.World) extent;
+        if (this.playersOnly) {
+            addMatches(world.playerEntities, matches);
+            return matches;
+        }
+
+        int minChunkX = getChunkCoordinate(this.boundsMin.getX() - MAX_ENTITY_RADIUS);
+        int maxChunkX = getChunkCoordinate(this.boundsMax.getX() + MAX_ENTITY_RADIUS);
+        int minChunkZ = getChunkCoordinate(this.boundsMin.getZ() - MAX_ENTITY_RADIUS);
+        int maxChunkZ = getChunkCoordinate(this.boundsMax.getZ() + MAX_ENTITY_RADIUS);
+        long chunks = ((long) maxChunkX - minChunkX + 1) * ((long) maxChunkZ - minChunkZ + 1);
+        if (chunks > world.getChunkProvider().getLoadedChunkCount()) {
+            // Not or hardly bounded, checking each loaded entity is cheaper
+            addMatches(world.loadedEntityList, matches);
+            return matches;
+        }
+
+        int minSection = MathHelper.clamp_int(getChunkCoordinate(this.boundsMin.getY() - MAX_ENTITY_RADIUS), 0, 15);
+        int maxSection = MathHelper.clamp_int(getChunkCoordinate(this.boundsMax.getY() + MAX_ENTITY_RADIUS), 0, 15);
+        int centerX = getChunkCoordinate(this.center.getX());
+        int centerZ = getChunkCoordinate(this.center.getZ());
+        // Search outwards from the center, so we can stop once the nearest matches are known
+        boolean canStopEarly = nearest > 0 && centerX >= minChunkX && centerX <= maxChunkX && centerZ >= minChunkZ && centerZ <= maxChunkZ;
+        centerX = MathHelper.clamp_int(centerX, minChunkX, maxChunkX);
+        centerZ = MathHelper.clamp_int(centerZ, minChunkZ, maxChunkZ);
+        int maxRing = Math.max(Math.max(centerX - minChunkX, maxChunkX - centerX), Math.max(centerZ - minChunkZ, maxChunkZ - centerZ));
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int z = centerZ - ring; z <= centerZ + ring; z++) {
+                int step = z == centerZ - ring || z == centerZ + ring ? 1 : 2 * ring;
+                for (int x = centerX - ring; x <= centerX + ring; x += step) {
+                    if (x < minChunkX || x > maxChunkX || z < minChunkZ || z > maxChunkZ || !world.getChunkProvider().chunkExists(x, z)) {
+                        continue;
+                    }
+                    ClassInheritanceMultiMap[] sections = world.getChunkFromChunkCoords(x, z).getEntityLists();
+                    for (int section = minSection; section <= maxSection; section++) {
+                        for (Object entity : sections[section]) {
+                            if (matches((Entity) entity)) {
+                                matches.add((Entity) entity);
+                            }
+                        }
+                    }
                 }
-                entities.add(e);
-                count++;
-                if (maxToSelect != 0 && count > maxToSelect) {
+            }
+            if (canStopEarly && ring > 0 && matches.size() >= nearest) {
+                // All entities in the next rings are at least this far away
+                double reach = ring * 16 - MAX_ENTITY_RADIUS;
+                matches.sort(this.byDistance);
+                if (reach > 0 && distanceSquared(matches.get(nearest - 1)) <= reach * reach) {
                     break;
                 }
             }
         }
-        return entities.build();
+        return matches;
+    }
+
+    private void addMatches(List<?> entities, List<Entity> matches) {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = (Entity) entities.get(i);
+            if (matches(entity)) {
+                matches.add(entity);
+            }
+        }
+    }
+
+    private static int getChunkCoordinate(double coordinate) {
+        if (Double.isInfinite(coordinate)) {
+            return coordinate < 0 ? Integer.MIN_VALUE >> 4 : Integer.MAX_VALUE >> 4;
+        }
+        return MathHelper.floor_double(coordinate) >> 4;
+    }
+
+    private double distanceSquared(Entity entity) {
+        net.minecraft.entity.Entity handle = (net.minecraft.entity.Entity) entity;
+        double x = handle.posX - this.center.getX();
+        double y = handle.posY - this.center.getY();
+        double z = handle.posZ - this.center.getZ();
+        return x * x + y * y + z * z;
     }
 
     private Set<? extends Extent> getExtentSet() {
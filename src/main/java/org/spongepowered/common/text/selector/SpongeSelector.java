@@ -44,6 +44,9 @@
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
 
 @NonnullByDefault
 public class SpongeSelector implements Selector {
@@ -52,6 +55,7 @@ public class SpongeSelector implements Selector {
     protected final ImmutableMap<ArgumentType<?>, Argument<?>> arguments;
 
     private final String plain;
+    @Nullable private volatile Predicate<Entity> filter;
 
     public SpongeSelector(SelectorType type, ImmutableMap<ArgumentType<?>, Argument<?>> arguments) {
         this.type = type;
@@ -101,6 +105,21 @@ public boolean isInverted(ArgumentType.Invertible<?> type) {
         return ((Argument.Invertible<?>) this.arguments.get(type)).isInverted();
     }
 
+    /**
+     * Gets the compiled filter for the arguments of this selector that do not
+     * depend on where it is resolved.
+     *
+     * @return The filter
+     */
+    Predicate<Entity> getFilter() {
+        Predicate<Entity> filter = this.filter;
+        if (filter == null) {
+            // Compiling twice is harmless, the filter is stateless
+            this.filter = filter = SelectorResolver.compileFilter(this);
+        }
+        return filter;
+    }
+
     @Override
     public Set<Entity> resolve(CommandSource origin) {
         return new SelectorResolver(origin, this, false).resolve();
@@ -27,9 +27,13 @@
 import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import net.minecraft.command.PlayerSelector;
 import org.spongepowered.api.scoreboard.Score;
 import org.spongepowered.api.text.selector.Argument;
@@ -117,15 +121,32 @@ private static <T> Optional<T> recast(Optional<?> source) {
             Maps.newLinkedHashMap();
     private final Map<String, ArgumentType<?>> argumentLookupMap = Maps
             .newLinkedHashMap();
+    // Selectors are immutable, so command blocks can share the parsed selectors
+    private final LoadingCache<String, Selector> selectorCache = CacheBuilder.newBuilder()
+            .maximumSize(1024)
+            .build(new CacheLoader<String, Selector>() {
+                @Override
+                public Selector load(String key) throws Exception {
+                    return parseUncached(key);
+                }
+            });
 
     @Override
     public SelectorBuilder createBuilder(SelectorType type) {
         return new SpongeSelectorBuilder(type);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public Selector parseRawSelector(String selector) {
+        try {
+            return this.selectorCache.getUnchecked(selector);
+        } catch (UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Selector parseUncached(String selector) {
         checkArgument(selector.startsWith("@"), "Invalid selector %s",
                 selector);
         // If multi-character types are possible, this handles it
@@ -164,6 +164,10 @@ public static void logBlockTrack(World world, Block block, BlockPos pos, EntityP
     }
 
     public static void logBlockAction(Cause cause, World world, CaptureType type, Transaction<BlockSnapshot> transaction) {
+        logBlockAction(cause, world, type, transaction.getOriginal().getState(), transaction.getFinal().getState());
+    }
+
+    public static void logBlockAction(Cause cause, World world, CaptureType type, BlockState originalState, BlockState newState) {
         if (world.isRemote) {
             return;
         }
@@ -180,8 +184,8 @@ public static void logBlockAction(Cause cause, World world, CaptureType type, Tr
                     user.isPresent() ? user.get().getName() : "None",
                     world.getWorldInfo().getWorldName(),
                     world.provider.getDimensionId(),
-                    transaction.getOriginal().getState(),
-                    transaction.getFinal().getState());
+                    originalState,
+                    newState);
             logStack(config);
         }
     }
@@ -98,6 +98,7 @@ public MutableBiomeArea getBiomeCopy(StorageType type) {
             case STANDARD:
                 return new ByteArrayMutableBiomeBuffer(this.biomes.clone(), this.start, this.size);
             case THREAD_SAFE:
+                return new ConcurrentByteArrayMutableBiomeBuffer(this.biomes.clone(), this.start, this.size);
             default:
                 throw new UnsupportedOperationException(type.name());
         }
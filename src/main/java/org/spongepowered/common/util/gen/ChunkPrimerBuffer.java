@@ -119,6 +119,7 @@ public MutableBlockVolume getBlockCopy(StorageType type) {
             case STANDARD:
                 return new ShortArrayMutableBlockBuffer(this.chunkPrimer.data.clone(), this.start, this.size);
             case THREAD_SAFE:
+                return new ConcurrentShortArrayMutableBlockBuffer(this.chunkPrimer.data.clone(), this.start, this.size);
             default:
                 throw new UnsupportedOperationException(type.name());
         }
@@ -0,0 +1,196 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.flowpowered.math.vector.Vector2i;
+import net.minecraft.world.biome.BiomeGenBase;
+import org.spongepowered.api.util.DiscreteTransform2;
+import org.spongepowered.api.util.annotation.NonnullByDefault;
+import org.spongepowered.api.world.biome.BiomeType;
+import org.spongepowered.api.world.biome.BiomeTypes;
+import org.spongepowered.api.world.extent.ImmutableBiomeArea;
+import org.spongepowered.api.world.extent.MutableBiomeArea;
+import org.spongepowered.api.world.extent.StorageType;
+import org.spongepowered.api.world.extent.UnmodifiableBiomeArea;
+import org.spongepowered.common.world.extent.MutableBiomeViewDownsize;
+import org.spongepowered.common.world.extent.MutableBiomeViewTransform;
+import org.spongepowered.common.world.extent.UnmodifiableBiomeAreaWrapper;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Mutable biome area backed by a byte array, which may be used by multiple
+ * threads at once. This is the {@link StorageType#THREAD_SAFE} counterpart
+ * of {@link ByteArrayMutableBiomeBuffer}.
+ *
+ * <p>Single biome reads and writes lock the 16x16 column they are in, reads
+ * are optimistic and only block while that column is written.
+ * {@link #snapshot()} and {@link #commit(byte[])} copy the whole area
+ * atomically.</p>
+ */
+@NonnullByDefault
+public final class ConcurrentByteArrayMutableBiomeBuffer extends AbstractBiomeBuffer implements MutableBiomeArea {
+
+    private final byte[] biomes;
+    private final BiomeGenBase[] biomeById = BiomeGenBase.getBiomeGenArray();
+    private final SectionLocks locks;
+
+    public ConcurrentByteArrayMutableBiomeBuffer(Vector2i start, Vector2i size) {
+        this(new byte[size.getX() * size.getY()], start, size);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param biomes The biome ids. The array is not copied, so it must not
+     *        be used by the caller anymore.
+     * @param start The start position
+     * @param size The size
+     */
+    public ConcurrentByteArrayMutableBiomeBuffer(byte[] biomes, Vector2i start, Vector2i size) {
+        super(start, size);
+        this.biomes = biomes;
+        this.locks = new SectionLocks(((size.getX() + 15L) >> 4) * ((size.getY() + 15L) >> 4));
+    }
+
+    private StampedLock getLock(int x, int z) {
+        return this.locks.get((x - this.start.getX()) >> 4, 0, (z - this.start.getY()) >> 4);
+    }
+
+    @Override
+    public void setBiome(Vector2i position, BiomeType biome) {
+        setBiome(position.getX(), position.getY(), biome);
+    }
+
+    @Override
+    public void setBiome(int x, int z, BiomeType biome) {
+        checkRange(x, z);
+        final byte id = (byte) ((BiomeGenBase) biome).biomeID;
+        final StampedLock lock = getLock(x, z);
+        final long stamp = lock.writeLock();
+        try {
+            this.biomes[getIndex(x, z)] = id;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public BiomeType getBiome(Vector2i position) {
+        return getBiome(position.getX(), position.getY());
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    @Override
+    public BiomeType getBiome(int x, int z) {
+        checkRange(x, z);
+        final int index = getIndex(x, z);
+        final StampedLock lock = getLock(x, z);
+        long stamp = lock.tryOptimisticRead();
+        byte biomeId = this.biomes[index];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                biomeId = this.biomes[index];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        BiomeType biomeType = (BiomeType) this.biomeById[biomeId & 0xff];
+        return biomeType == null ? BiomeTypes.OCEAN : biomeType;
+    }
+
+    /**
+     * Copies all biome ids of this area at once. No writes happen while the
+     * copy is made.
+     *
+     * @return A new array with the biome ids
+     */
+    public byte[] snapshot() {
+        final long[] stamps = this.locks.lockAll(false);
+        try {
+            return this.biomes.clone();
+        } finally {
+            this.locks.unlockAll(stamps);
+        }
+    }
+
+    /**
+     * Replaces all biome ids of this area at once. No reads or writes happen
+     * while the ids are replaced.
+     *
+     * @param biomes The new biome ids, in the layout of this area
+     */
+    public void commit(byte[] biomes) {
+        checkArgument(biomes.length == this.biomes.length, "Expected %s biomes, got %s", this.biomes.length, biomes.length);
+        final long[] stamps = this.locks.lockAll(true);
+        try {
+            System.arraycopy(biomes, 0, this.biomes, 0, biomes.length);
+        } finally {
+            this.locks.unlockAll(stamps);
+        }
+    }
+
+    @Override
+    public MutableBiomeArea getBiomeView(Vector2i newMin, Vector2i newMax) {
+        checkRange(newMin.getX(), newMin.getY());
+        checkRange(newMax.getX(), newMax.getY());
+        return new MutableBiomeViewDownsize(this, newMin, newMax);
+    }
+
+    @Override
+    public MutableBiomeArea getBiomeView(DiscreteTransform2 transform) {
+        return new MutableBiomeViewTransform(this, transform);
+    }
+
+    @Override
+    public MutableBiomeArea getRelativeBiomeView() {
+        return getBiomeView(DiscreteTransform2.fromTranslation(this.start.negate()));
+    }
+
+    @Override
+    public UnmodifiableBiomeArea getUnmodifiableBiomeView() {
+        return new UnmodifiableBiomeAreaWrapper(this);
+    }
+
+    @Override
+    public MutableBiomeArea getBiomeCopy(StorageType type) {
+        switch (type) {
+            case STANDARD:
+                return new ByteArrayMutableBiomeBuffer(snapshot(), this.start, this.size);
+            case THREAD_SAFE:
+                return new ConcurrentByteArrayMutableBiomeBuffer(snapshot(), this.start, this.size);
+            default:
+                throw new UnsupportedOperationException(type.name());
+        }
+    }
+
+    @Override
+    public ImmutableBiomeArea getImmutableBiomeCopy() {
+        return ByteArrayImmutableBiomeBuffer.newWithoutArrayClone(snapshot(), this.start, this.size);
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.flowpowered.math.vector.Vector3i;
+import net.minecraft.block.Block;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockType;
+import org.spongepowered.api.block.BlockTypes;
+import org.spongepowered.api.util.DiscreteTransform3;
+import org.spongepowered.api.util.annotation.NonnullByDefault;
+import org.spongepowered.api.world.extent.ImmutableBlockVolume;
+import org.spongepowered.api.world.extent.MutableBlockVolume;
+import org.spongepowered.api.world.extent.StorageType;
+import org.spongepowered.api.world.extent.UnmodifiableBlockVolume;
+import org.spongepowered.common.world.extent.MutableBlockViewDownsize;
+import org.spongepowered.common.world.extent.MutableBlockViewTransform;
+import org.spongepowered.common.world.extent.UnmodifiableBlockVolumeWrapper;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Mutable block volume backed by a short array, which may be used by
+ * multiple threads at once. This is the {@link StorageType#THREAD_SAFE}
+ * counterpart of {@link ShortArrayMutableBlockBuffer}.
+ *
+ * <p>Single block reads and writes lock the 16x16x16 section they are in,
+ * reads are optimistic and only block while that section is written.
+ * {@link #snapshot()} and {@link #commit(short[])} copy the whole volume
+ * atomically.</p>
+ */
+@NonnullByDefault
+public final class ConcurrentShortArrayMutableBlockBuffer extends AbstractBlockBuffer implements MutableBlockVolume {
+
+    @SuppressWarnings("ConstantConditions")
+    private static final BlockState AIR = BlockTypes.AIR.getDefaultState();
+    private final short[] blocks;
+    private final SectionLocks locks;
+
+    public ConcurrentShortArrayMutableBlockBuffer(Vector3i start, Vector3i size) {
+        this(new short[size.getX() * size.getY() * size.getZ()], start, size);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param blocks The block state ids. The array is not copied, so it
+     *        must not be used by the caller anymore.
+     * @param start The start position
+     * @param size The size
+     */
+    public ConcurrentShortArrayMutableBlockBuffer(short[] blocks, Vector3i start, Vector3i size) {
+        super(start, size);
+        this.blocks = blocks;
+        this.locks = new SectionLocks(((size.getX() + 15L) >> 4) * ((size.getY() + 15L) >> 4) * ((size.getZ() + 15L) >> 4));
+    }
+
+    private StampedLock getLock(int x, int y, int z) {
+        return this.locks.get((x - this.start.getX()) >> 4, (y - this.start.getY()) >> 4, (z - this.start.getZ()) >> 4);
+    }
+
+    @Override
+    public void setBlock(Vector3i position, BlockState block) {
+        setBlock(position.getX(), position.getY(), position.getZ(), block);
+    }
+
+    @Override
+    public void setBlockType(Vector3i position, BlockType type) {
+        setBlockType(position.getX(), position.getY(), position.getZ(), type);
+    }
+
+    @Override
+    public void setBlockType(int x, int y, int z, BlockType type) {
+        setBlock(x, y, z, type.getDefaultState());
+    }
+
+    @Override
+    public void setBlock(int x, int y, int z, BlockState block) {
+        checkRange(x, y, z);
+        final short id = (short) Block.BLOCK_STATE_IDS.get(block);
+        final StampedLock lock = getLock(x, y, z);
+        final long stamp = lock.writeLock();
+        try {
+            this.blocks[getIndex(x, y, z)] = id;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public BlockState getBlock(int x, int y, int z) {
+        checkRange(x, y, z);
+        final int index = getIndex(x, y, z);
+        final StampedLock lock = getLock(x, y, z);
+        long stamp = lock.tryOptimisticRead();
+        short id = this.blocks[index];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                id = this.blocks[index];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        BlockState block = (BlockState) Block.BLOCK_STATE_IDS.getByValue(id);
+        return block == null ? AIR : block;
+    }
+
+    /**
+     * Copies all block state ids of this volume at once. No writes happen
+     * while the copy is made.
+     *
+     * @return A new array with the block state ids
+     */
+    public short[] snapshot() {
+        final long[] stamps = this.locks.lockAll(false);
+        try {
+            return this.blocks.clone();
+        } finally {
+            this.locks.unlockAll(stamps);
+        }
+    }
+
+    /**
+     * Replaces all block state ids of this volume at once. No reads or
+     * writes happen while the ids are replaced.
+     *
+     * @param blocks The new block state ids, in the layout of this volume
+     */
+    public void commit(short[] blocks) {
+        checkArgument(blocks.length == this.blocks.length, "Expected %s blocks, got %s", this.blocks.length, blocks.length);
+        final long[] stamps = this.locks.lockAll(true);
+        try {
+            System.arraycopy(blocks, 0, this.blocks, 0, blocks.length);
+        } finally {
+            this.locks.unlockAll(stamps);
+        }
+    }
+
+    @Override
+    public MutableBlockVolume getBlockView(Vector3i newMin, Vector3i newMax) {
+        checkRange(newMin.getX(), newMin.getY(), newMin.getZ());
+        checkRange(newMax.getX(), newMax.getY(), newMax.getZ());
+        return new MutableBlockViewDownsize(this, newMin, newMax);
+    }
+
+    @Override
+    public MutableBlockVolume getBlockView(DiscreteTransform3 transform) {
+        return new MutableBlockViewTransform(this, transform);
+    }
+
+    @Override
+    public MutableBlockVolume getRelativeBlockView() {
+        return getBlockView(DiscreteTransform3.fromTranslation(this.start.negate()));
+    }
+
+    @Override
+    public UnmodifiableBlockVolume getUnmodifiableBlockView() {
+        return new UnmodifiableBlockVolumeWrapper(this);
+    }
+
+    @Override
+    public MutableBlockVolume getBlockCopy(StorageType type) {
+        switch (type) {
+            case STANDARD:
+                return new ShortArrayMutableBlockBuffer(snapshot(), this.start, this.size);
+            case THREAD_SAFE:
+                return new ConcurrentShortArrayMutableBlockBuffer(snapshot(), this.start, this.size);
+            default:
+                throw new UnsupportedOperationException(type.name());
+        }
+    }
+
+    @Override
+    public ImmutableBlockVolume getImmutableBlockCopy() {
+        return ShortArrayImmutableBlockBuffer.newWithoutArrayClone(snapshot(), this.start, this.size);
+    }
+}
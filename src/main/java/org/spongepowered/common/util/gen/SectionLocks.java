@@ -0,0 +1,78 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A fixed set of locks shared by the sections of a concurrent buffer.
+ * Sections are mapped onto the locks by hash, so the number of locks stays
+ * bounded for large buffers.
+ */
+final class SectionLocks {
+
+    private static final int MAX_LOCKS = 64;
+
+    private final StampedLock[] locks;
+    private final int mask;
+
+    SectionLocks(long sections) {
+        int count = 1;
+        while (count < MAX_LOCKS && count < sections) {
+            count <<= 1;
+        }
+        this.locks = new StampedLock[count];
+        for (int i = 0; i < count; i++) {
+            this.locks[i] = new StampedLock();
+        }
+        this.mask = count - 1;
+    }
+
+    StampedLock get(int sectionX, int sectionY, int sectionZ) {
+        int hash = sectionX * 73856093 ^ sectionY * 19349663 ^ sectionZ * 83492791;
+        return this.locks[(hash ^ hash >>> 16) & this.mask];
+    }
+
+    /**
+     * Acquires all locks, in order.
+     *
+     * @param write Whether to acquire write locks instead of read locks
+     * @return The stamps, to pass to {@link #unlockAll(long[])}
+     */
+    long[] lockAll(boolean write) {
+        final long[] stamps = new long[this.locks.length];
+        for (int i = 0; i < this.locks.length; i++) {
+            stamps[i] = write ? this.locks[i].writeLock() : this.locks[i].readLock();
+        }
+        return stamps;
+    }
+
+    void unlockAll(long[] stamps) {
+        for (int i = this.locks.length - 1; i >= 0; i--) {
+            this.locks[i].unlock(stamps[i]);
+        }
+    }
+
+}
@@ -89,6 +89,7 @@ public MutableBlockVolume getBlockCopy(StorageType type) {
             case STANDARD:
                 return new ShortArrayMutableBlockBuffer(this.blocks.clone(), this.start, this.size);
             case THREAD_SAFE:
+                return new ConcurrentShortArrayMutableBlockBuffer(this.blocks.clone(), this.start, this.size);
             default:
                 throw new UnsupportedOperationException(type.name());
         }
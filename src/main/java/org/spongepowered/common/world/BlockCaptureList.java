@@ -0,0 +1,281 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.flowpowered.math.vector.Vector3i;
+import gnu.trove.map.hash.TLongIntHashMap;
+import net.minecraft.util.BlockPos;
+import org.spongepowered.api.block.BlockSnapshot;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An insertion ordered list of captured block snapshots, indexed by their
+ * packed block position.
+ *
+ * <p>Each position is only captured once: adding a snapshot for a position
+ * that was already captured keeps the first (original) snapshot and returns
+ * {@code false}. Removing a snapshot for a position is O(1), the freed slot
+ * is only reclaimed when the list is indexed or cleared.</p>
+ */
+public final class BlockCaptureList extends AbstractList<BlockSnapshot> {
+
+    private static final int NO_SLOT = -1;
+
+    private BlockSnapshot[] snapshots = new BlockSnapshot[16];
+    private long[] positions = new long[16];
+    private final TLongIntHashMap slots = new TLongIntHashMap(16, 0.5f, Long.MIN_VALUE, NO_SLOT);
+
+    // The number of used slots (including removed ones) and live snapshots
+    private int end;
+    private int size;
+    // Incremented whenever compact() moves snapshots to other slots. This is
+    // not a structural modification, the order of the snapshots is kept.
+    private int compactions;
+
+    private static long pack(Vector3i position) {
+        return new BlockPos(position.getX(), position.getY(), position.getZ()).toLong();
+    }
+
+    @Override
+    public boolean add(BlockSnapshot snapshot) {
+        return add(pack(checkNotNull(snapshot, "snapshot").getPosition()), snapshot);
+    }
+
+    /**
+     * Adds the snapshot captured at the given position, unless a snapshot
+     * was already captured there.
+     *
+     * @param pos The position of the snapshot
+     * @param snapshot The snapshot
+     * @return True if the snapshot was added
+     */
+    public boolean add(BlockPos pos, BlockSnapshot snapshot) {
+        return add(pos.toLong(), checkNotNull(snapshot, "snapshot"));
+    }
+
+    private boolean add(long pos, BlockSnapshot snapshot) {
+        if (this.slots.containsKey(pos)) {
+            return false;
+        }
+
+        if (this.end == this.snapshots.length) {
+            if (this.size < this.end / 2) {
+                compact();
+            } else {
+                this.snapshots = Arrays.copyOf(this.snapshots, this.end * 2);
+                this.positions = Arrays.copyOf(this.positions, this.end * 2);
+            }
+        }
+
+        this.snapshots[this.end] = snapshot;
+        this.positions[this.end] = pos;
+        this.slots.put(pos, this.end);
+        this.end++;
+        this.size++;
+        this.modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof BlockSnapshot)) {
+            return false;
+        }
+        int slot = this.slots.get(pack(((BlockSnapshot) o).getPosition()));
+        if (slot == NO_SLOT || !o.equals(this.snapshots[slot])) {
+            return false;
+        }
+
+        removeSlot(slot);
+        return true;
+    }
+
+    /**
+     * Removes the snapshot captured at the given position, if it is the
+     * same instance as the given snapshot.
+     *
+     * @param pos The position of the snapshot
+     * @param snapshot The snapshot to remove
+     * @return True if the snapshot was removed
+     */
+    public boolean remove(BlockPos pos, BlockSnapshot snapshot) {
+        int slot = this.slots.get(pos.toLong());
+        if (slot == NO_SLOT || this.snapshots[slot] != snapshot) {
+            return false;
+        }
+
+        removeSlot(slot);
+        return true;
+    }
+
+    private void removeSlot(int slot) {
+        this.slots.remove(this.positions[slot]);
+        this.snapshots[slot] = null;
+        this.size--;
+        this.modCount++;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof BlockSnapshot)) {
+            return false;
+        }
+        int slot = this.slots.get(pack(((BlockSnapshot) o).getPosition()));
+        return slot != NO_SLOT && o.equals(this.snapshots[slot]);
+    }
+
+    /**
+     * Gets whether a snapshot was captured at the given position.
+     *
+     * @param pos The position
+     * @return True if the position was captured
+     */
+    public boolean contains(BlockPos pos) {
+        return this.slots.containsKey(pos.toLong());
+    }
+
+    @Override
+    public BlockSnapshot get(int index) {
+        checkElementIndex(index, this.size);
+        if (this.size != this.end) {
+            compact();
+        }
+        return this.snapshots[index];
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public void clear() {
+        if (this.end == 0) {
+            return;
+        }
+
+        Arrays.fill(this.snapshots, 0, this.end, null);
+        this.slots.clear();
+        this.end = 0;
+        this.size = 0;
+        this.modCount++;
+    }
+
+    /**
+     * Moves all live snapshots to the front of the arrays, in order. Open
+     * iterators find their position again through the compaction count.
+     */
+    private void compact() {
+        this.compactions++;
+        int target = 0;
+        for (int slot = 0; slot < this.end; slot++) {
+            BlockSnapshot snapshot = this.snapshots[slot];
+            if (snapshot != null) {
+                if (slot != target) {
+                    this.snapshots[target] = snapshot;
+                    this.positions[target] = this.positions[slot];
+                    this.slots.put(this.positions[target], target);
+                }
+                target++;
+            }
+        }
+        Arrays.fill(this.snapshots, target, this.end, null);
+        this.end = target;
+    }
+
+    @Override
+    public Iterator<BlockSnapshot> iterator() {
+        return new Itr();
+    }
+
+    private final class Itr implements Iterator<BlockSnapshot> {
+
+        private int next;
+        private int last = NO_SLOT;
+        // The number of live snapshots before the next one
+        private int index;
+        private int expectedModCount = BlockCaptureList.this.modCount;
+        private int expectedCompactions = BlockCaptureList.this.compactions;
+
+        @Override
+        public boolean hasNext() {
+            checkForComodification();
+            checkForCompaction();
+            while (this.next < BlockCaptureList.this.end && BlockCaptureList.this.snapshots[this.next] == null) {
+                this.next++;
+            }
+            return this.next < BlockCaptureList.this.end;
+        }
+
+        @Override
+        public BlockSnapshot next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.next++;
+            this.index++;
+            return BlockCaptureList.this.snapshots[this.last];
+        }
+
+        @Override
+        public void remove() {
+            checkState(this.last != NO_SLOT, "next() was not called");
+            checkForComodification();
+            checkForCompaction();
+            removeSlot(this.last);
+            this.last = NO_SLOT;
+            this.index--;
+            this.expectedModCount = BlockCaptureList.this.modCount;
+        }
+
+        private void checkForComodification() {
+            if (BlockCaptureList.this.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        private void checkForCompaction() {
+            if (BlockCaptureList.this.compactions != this.expectedCompactions) {
+                // The live snapshots now fill the first slots, in order
+                this.next = this.index;
+                if (this.last != NO_SLOT) {
+                    this.last = this.index - 1;
+                }
+                this.expectedCompactions = BlockCaptureList.this.compactions;
+            }
+        }
+
+    }
+
+}
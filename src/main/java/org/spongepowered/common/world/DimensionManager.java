@@ -49,6 +49,7 @@
 import org.spongepowered.common.interfaces.IMixinEntityPlayerMP;
 import org.spongepowered.common.interfaces.IMixinMinecraftServer;
 import org.spongepowered.common.interfaces.IMixinWorldProvider;
+import org.spongepowered.common.world.gen.CustomChunkProviderGenerate;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -205,7 +206,11 @@ public static void setWorld(int id, WorldServer world) {
             ((IMixinMinecraftServer) MinecraftServer.getServer()).getWorldTickTimes().put(id, new long[100]);
             Sponge.getLogger().info("Loading dimension {} ({}) ({})", id, world.getWorldInfo().getWorldName(), world.getMinecraftServer());
         } else {
-            worlds.remove(id);
+            WorldServer unloaded = worlds.remove(id);
+            if (unloaded != null && unloaded.theChunkProviderServer.serverChunkGenerator instanceof CustomChunkProviderGenerate) {
+                // Chunks generated ahead of time are no longer needed
+                ((CustomChunkProviderGenerate) unloaded.theChunkProviderServer.serverChunkGenerator).cancelPrefetches();
+            }
             ((IMixinMinecraftServer) MinecraftServer.getServer()).getWorldTickTimes().remove(id);
             Sponge.getLogger().info("Unloading dimension {}", id);
         }
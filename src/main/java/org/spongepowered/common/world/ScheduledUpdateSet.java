@@ -0,0 +1,218 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.minecraft.util.BlockPos;
+import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraft.world.NextTickListEntry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * The pending scheduled updates of a world, ordered like vanilla and also
+ * indexed by chunk and block position.
+ *
+ * <p>The index is kept up to date through {@link #add}, {@link #remove},
+ * {@link #iterator()} and {@link #clear()}, which are the only ways the
+ * server modifies the set. Changes made through sub set views are not
+ * indexed.</p>
+ */
+public class ScheduledUpdateSet extends TreeSet<NextTickListEntry> {
+
+    private static final long serialVersionUID = 1L;
+
+    // chunk key -> packed block position -> entries at that position
+    private final transient TLongObjectHashMap<TLongObjectHashMap<List<NextTickListEntry>>> chunks =
+            new TLongObjectHashMap<TLongObjectHashMap<List<NextTickListEntry>>>();
+
+    private static long chunkKey(BlockPos pos) {
+        return ChunkCoordIntPair.chunkXZ2Int(pos.getX() >> 4, pos.getZ() >> 4);
+    }
+
+    @Override
+    public boolean add(NextTickListEntry entry) {
+        if (!super.add(entry)) {
+            return false;
+        }
+
+        final long chunkKey = chunkKey(entry.position);
+        TLongObjectHashMap<List<NextTickListEntry>> positions = this.chunks.get(chunkKey);
+        if (positions == null) {
+            positions = new TLongObjectHashMap<List<NextTickListEntry>>();
+            this.chunks.put(chunkKey, positions);
+        }
+        final long posKey = entry.position.toLong();
+        List<NextTickListEntry> entries = positions.get(posKey);
+        if (entries == null) {
+            entries = new ArrayList<NextTickListEntry>(1);
+            positions.put(posKey, entries);
+        }
+        entries.add(entry);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends NextTickListEntry> entries) {
+        // TreeSet bypasses add for sorted collections
+        boolean changed = false;
+        for (NextTickListEntry entry : entries) {
+            changed |= add(entry);
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!super.remove(o)) {
+            return false;
+        }
+
+        unindex((NextTickListEntry) o);
+        return true;
+    }
+
+    @Override
+    public NextTickListEntry pollFirst() {
+        final NextTickListEntry entry = super.pollFirst();
+        if (entry != null) {
+            unindex(entry);
+        }
+        return entry;
+    }
+
+    @Override
+    public NextTickListEntry pollLast() {
+        final NextTickListEntry entry = super.pollLast();
+        if (entry != null) {
+            unindex(entry);
+        }
+        return entry;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        this.chunks.clear();
+    }
+
+    @Override
+    public Iterator<NextTickListEntry> iterator() {
+        final Iterator<NextTickListEntry> iterator = super.iterator();
+        return new Iterator<NextTickListEntry>() {
+
+            private NextTickListEntry last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public NextTickListEntry next() {
+                return this.last = iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                unindex(this.last);
+            }
+        };
+    }
+
+    private void unindex(NextTickListEntry entry) {
+        final long chunkKey = chunkKey(entry.position);
+        final TLongObjectHashMap<List<NextTickListEntry>> positions = this.chunks.get(chunkKey);
+        if (positions == null) {
+            return;
+        }
+        final long posKey = entry.position.toLong();
+        final List<NextTickListEntry> entries = positions.get(posKey);
+        if (entries == null) {
+            return;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i) == entry) {
+                entries.remove(i);
+                break;
+            }
+        }
+        if (entries.isEmpty()) {
+            positions.remove(posKey);
+            if (positions.isEmpty()) {
+                this.chunks.remove(chunkKey);
+            }
+        }
+    }
+
+    /**
+     * Gets the pending updates at the given position, in execution order.
+     *
+     * @param pos The block position
+     * @return A new list of the updates
+     */
+    public List<NextTickListEntry> getEntriesAt(BlockPos pos) {
+        final TLongObjectHashMap<List<NextTickListEntry>> positions = this.chunks.get(chunkKey(pos));
+        final List<NextTickListEntry> entries = positions == null ? null : positions.get(pos.toLong());
+        if (entries == null) {
+            return new ArrayList<NextTickListEntry>(0);
+        }
+        final List<NextTickListEntry> result = new ArrayList<NextTickListEntry>(entries);
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Adds the pending updates in the given chunk that lie within the given
+     * block bounds to the collection. The order is unspecified.
+     *
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @param minX The minimum block x coordinate, inclusive
+     * @param minZ The minimum block z coordinate, inclusive
+     * @param maxX The maximum block x coordinate, exclusive
+     * @param maxZ The maximum block z coordinate, exclusive
+     * @param out The collection to add to
+     */
+    public void collectEntriesInChunk(int chunkX, int chunkZ, int minX, int minZ, int maxX, int maxZ, Collection<NextTickListEntry> out) {
+        final TLongObjectHashMap<List<NextTickListEntry>> positions = this.chunks.get(ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ));
+        if (positions == null) {
+            return;
+        }
+        for (List<NextTickListEntry> entries : positions.valueCollection()) {
+            final BlockPos pos = entries.get(0).position;
+            if (pos.getX() >= minX && pos.getX() < maxX && pos.getZ() >= minZ && pos.getZ() < maxZ) {
+                out.addAll(entries);
+            }
+        }
+    }
+
+}
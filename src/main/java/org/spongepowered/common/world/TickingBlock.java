@@ -0,0 +1,105 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.BlockPos;
+import org.spongepowered.api.block.BlockSnapshot;
+import org.spongepowered.common.SpongeImplFactory;
+import org.spongepowered.common.interfaces.IMixinWorld;
+
+import javax.annotation.Nullable;
+
+/**
+ * A reusable holder for the block that is currently being ticked by a
+ * world. Only the state and packed position are kept while the block
+ * ticks, the {@link BlockSnapshot} used as cause is created on demand.
+ *
+ * <p>Blocks with a tile entity are the exception. The tick may change,
+ * replace or remove the tile entity, so their snapshot is created when the
+ * tick starts.</p>
+ */
+public final class TickingBlock {
+
+    @Nullable private IBlockState state;
+    private long packedPos;
+    private int updateFlag;
+    @Nullable private BlockSnapshot snapshot;
+
+    /**
+     * Marks the given block as ticking.
+     *
+     * @param world The world the block is ticking in
+     * @param state The state of the block before it ticks
+     * @param pos The position of the block
+     * @param updateFlag The update flag of the snapshot, if one is created
+     */
+    public void enter(IMixinWorld world, IBlockState state, BlockPos pos, int updateFlag) {
+        if (SpongeImplFactory.blockHasTileEntity(state.getBlock(), state)) {
+            enter(world.createSpongeBlockSnapshot(state, pos, updateFlag));
+            return;
+        }
+        this.state = state;
+        this.packedPos = pos.toLong();
+        this.updateFlag = updateFlag;
+        this.snapshot = null;
+    }
+
+    /**
+     * Marks the block of the given snapshot as ticking.
+     *
+     * @param snapshot The snapshot, or null to clear
+     */
+    public void enter(@Nullable BlockSnapshot snapshot) {
+        this.state = null;
+        this.snapshot = snapshot;
+    }
+
+    public void exit() {
+        this.state = null;
+        this.snapshot = null;
+    }
+
+    public boolean isActive() {
+        return this.state != null || this.snapshot != null;
+    }
+
+    /**
+     * Gets the snapshot of the ticking block, creating it the first time it
+     * is requested during this tick. As the block has no tile entity in that
+     * case, the state saved before the tick is all it needs.
+     *
+     * @param world The world the block is ticking in
+     * @return The snapshot, or null if no block is ticking
+     */
+    @Nullable
+    public BlockSnapshot getSnapshot(IMixinWorld world) {
+        if (this.snapshot == null && this.state != null) {
+            this.snapshot = world.createSpongeBlockSnapshot(this.state, BlockPos.fromLong(this.packedPos), this.updateFlag);
+        }
+        return this.snapshot;
+    }
+
+}
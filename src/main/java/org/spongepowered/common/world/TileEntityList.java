@@ -0,0 +1,260 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import net.minecraft.tileentity.TileEntity;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * The loaded tile entities of a world, in vanilla order and also indexed by
+ * tile entity class.
+ *
+ * <p>Additions and removals, including removals through iterators and the
+ * bulk removal of unloaded tile entities each tick, update the index
+ * directly. Insertions at an index, replacements and {@link #retainAll}
+ * mark the index as stale, so it is rebuilt by the next lookup. Changes
+ * made through list iterators and sub list views are not indexed, the
+ * server does not use them.</p>
+ */
+public class TileEntityList extends ArrayList<TileEntity> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Map<Class<?>, List<TileEntity>> byClass = new IdentityHashMap<Class<?>, List<TileEntity>>();
+    private transient boolean stale;
+
+    /**
+     * Gets the loaded tile entities of exactly the given class.
+     *
+     * @param type The tile entity class
+     * @return A read-only view of the tile entities, which reflects later
+     *     changes to this list
+     */
+    public List<TileEntity> getByClass(Class<?> type) {
+        return new ClassView(type);
+    }
+
+    private List<TileEntity> lookup(Class<?> type) {
+        if (this.stale) {
+            this.byClass.clear();
+            for (int i = 0; i < size(); i++) {
+                index(get(i));
+            }
+            this.stale = false;
+        }
+        List<TileEntity> tileEntities = this.byClass.get(type);
+        return tileEntities == null ? Collections.<TileEntity>emptyList() : tileEntities;
+    }
+
+    private void index(TileEntity tileEntity) {
+        List<TileEntity> tileEntities = this.byClass.get(tileEntity.getClass());
+        if (tileEntities == null) {
+            tileEntities = new ArrayList<TileEntity>();
+            this.byClass.put(tileEntity.getClass(), tileEntities);
+        }
+        tileEntities.add(tileEntity);
+    }
+
+    private void unindex(Object tileEntity) {
+        if (this.stale) {
+            return;
+        }
+        List<TileEntity> tileEntities = this.byClass.get(tileEntity.getClass());
+        if (tileEntities != null) {
+            tileEntities.remove(tileEntity);
+            if (tileEntities.isEmpty()) {
+                this.byClass.remove(tileEntity.getClass());
+            }
+        }
+    }
+
+    private void unindexAll(Collection<?> removed) {
+        if (this.stale) {
+            return;
+        }
+        // Group by class first, so each class list is only traversed once
+        Map<Class<?>, Set<Object>> removedByClass = new IdentityHashMap<Class<?>, Set<Object>>();
+        for (Object tileEntity : removed) {
+            if (tileEntity != null) {
+                Set<Object> tileEntities = removedByClass.get(tileEntity.getClass());
+                if (tileEntities == null) {
+                    tileEntities = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+                    removedByClass.put(tileEntity.getClass(), tileEntities);
+                }
+                tileEntities.add(tileEntity);
+            }
+        }
+        for (Map.Entry<Class<?>, Set<Object>> entry : removedByClass.entrySet()) {
+            List<TileEntity> tileEntities = this.byClass.get(entry.getKey());
+            if (tileEntities != null) {
+                tileEntities.removeAll(entry.getValue());
+                if (tileEntities.isEmpty()) {
+                    this.byClass.remove(entry.getKey());
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean add(TileEntity tileEntity) {
+        super.add(tileEntity);
+        if (!this.stale) {
+            index(tileEntity);
+        }
+        return true;
+    }
+
+    @Override
+    public void add(int index, TileEntity tileEntity) {
+        super.add(index, tileEntity);
+        this.stale = true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends TileEntity> tileEntities) {
+        if (!super.addAll(tileEntities)) {
+            return false;
+        }
+        if (!this.stale) {
+            for (TileEntity tileEntity : tileEntities) {
+                index(tileEntity);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends TileEntity> tileEntities) {
+        this.stale = true;
+        return super.addAll(index, tileEntities);
+    }
+
+    @Override
+    public TileEntity set(int index, TileEntity tileEntity) {
+        this.stale = true;
+        return super.set(index, tileEntity);
+    }
+
+    @Override
+    public TileEntity remove(int index) {
+        TileEntity removed = super.remove(index);
+        unindex(removed);
+        return removed;
+    }
+
+    @Override
+    public boolean remove(Object tileEntity) {
+        if (!super.remove(tileEntity)) {
+            return false;
+        }
+        unindex(tileEntity);
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> tileEntities) {
+        if (!super.removeAll(tileEntities)) {
+            return false;
+        }
+        unindexAll(tileEntities);
+        return true;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> tileEntities) {
+        if (!super.retainAll(tileEntities)) {
+            return false;
+        }
+        this.stale = true;
+        return true;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super TileEntity> filter) {
+        List<TileEntity> removed = new ArrayList<TileEntity>();
+        if (!super.removeIf(tileEntity -> {
+            if (filter.test(tileEntity)) {
+                removed.add(tileEntity);
+                return true;
+            }
+            return false;
+        })) {
+            return false;
+        }
+        unindexAll(removed);
+        return true;
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<TileEntity> operator) {
+        this.stale = true;
+        super.replaceAll(operator);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        this.byClass.clear();
+        this.stale = false;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        this.stale = true;
+        super.removeRange(fromIndex, toIndex);
+    }
+
+    private final class ClassView extends AbstractList<TileEntity> implements RandomAccess {
+
+        private final Class<?> type;
+
+        ClassView(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public TileEntity get(int index) {
+            return lookup(this.type).get(index);
+        }
+
+        @Override
+        public int size() {
+            return lookup(this.type).size();
+        }
+
+    }
+
+}
@@ -0,0 +1,424 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import gnu.trove.list.array.TLongArrayList;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.gen.ChunkProviderServer;
+import org.spongepowered.api.service.scheduler.Task;
+import org.spongepowered.common.Sponge;
+import org.spongepowered.common.data.util.NbtDataUtil;
+import org.spongepowered.common.interfaces.IMixinAnvilChunkLoader;
+import org.spongepowered.common.interfaces.IMixinWorldInfo;
+import org.spongepowered.common.world.gen.CustomChunkProviderGenerate;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+/**
+ * Generates all chunks within a radius around a center chunk of a world.
+ *
+ * <p>Chunks are generated in rings around the center, a few every tick. The
+ * time spent each tick is limited to whatever is left of the tick after the
+ * rest of the server is done, so players are not slowed down. Generated
+ * chunks are unloaded and saved in batches once all their neighbours have
+ * been generated too.</p>
+ *
+ * <p>Progress is stored in the Sponge NBT of the world, so that the task can
+ * be resumed after a restart using {@link #resume(WorldServer)}.</p>
+ */
+public final class WorldPregenerator {
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long RESERVED_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final int SAVE_BATCH_SIZE = 256;
+    private static final Map<UUID, WorldPregenerator> running = Maps.newHashMap();
+
+    public enum Shape {
+        SQUARE,
+        CIRCLE
+    }
+
+    private final UUID worldId;
+    private final int centerX;
+    private final int centerZ;
+    private final int radius;
+    private final Shape shape;
+    private final long total;
+    private final TLongArrayList unsaved = new TLongArrayList();
+    @Nullable private Task task;
+
+    // The position of the next chunk, within the ring around the center
+    private int ring;
+    private int ringIndex;
+    private long completed;
+
+    private long sessionStart;
+    private long sessionCompleted;
+    private long lastWorkNanos;
+
+    private WorldPregenerator(WorldServer world, int centerX, int centerZ, int radius, Shape shape) {
+        this.worldId = ((org.spongepowered.api.world.World) world).getUniqueId();
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.radius = radius;
+        this.shape = shape;
+        this.total = countChunks(radius, shape);
+    }
+
+    /**
+     * Starts generating the given area of the world, replacing any running
+     * or saved task of that world. If the saved task covers the same area,
+     * it is resumed instead.
+     *
+     * @param world The world
+     * @param centerX The x coordinate of the center chunk
+     * @param centerZ The z coordinate of the center chunk
+     * @param radius The radius, in chunks
+     * @param shape The shape of the area
+     * @return The started task
+     */
+    public static WorldPregenerator start(WorldServer world, int centerX, int centerZ, int radius, Shape shape) {
+        stop(world);
+        WorldPregenerator saved = load(world);
+        WorldPregenerator pregenerator = new WorldPregenerator(world, centerX, centerZ, radius, shape);
+        if (saved != null && saved.centerX == centerX && saved.centerZ == centerZ && saved.radius == radius && saved.shape == shape) {
+            pregenerator.ring = saved.ring;
+            pregenerator.ringIndex = saved.ringIndex;
+            pregenerator.completed = saved.completed;
+        }
+        pregenerator.schedule(world);
+        return pregenerator;
+    }
+
+    /**
+     * Resumes the task saved in the world, if there is one and it is not
+     * already running.
+     *
+     * @param world The world
+     * @return The resumed task, or null if there is no saved task
+     */
+    @Nullable
+    public static WorldPregenerator resume(WorldServer world) {
+        WorldPregenerator current = get(world);
+        if (current != null) {
+            return current;
+        }
+        WorldPregenerator saved = load(world);
+        if (saved != null) {
+            saved.schedule(world);
+        }
+        return saved;
+    }
+
+    /**
+     * Stops the task of the given world. Its progress stays saved.
+     *
+     * @param world The world
+     * @return Whether a task was running
+     */
+    public static boolean stop(WorldServer world) {
+        WorldPregenerator pregenerator = running.remove(((org.spongepowered.api.world.World) world).getUniqueId());
+        if (pregenerator == null) {
+            return false;
+        }
+        pregenerator.cancel(world);
+        return true;
+    }
+
+    @Nullable
+    public static WorldPregenerator get(WorldServer world) {
+        return running.get(((org.spongepowered.api.world.World) world).getUniqueId());
+    }
+
+    public static Collection<WorldPregenerator> getRunning() {
+        return ImmutableList.copyOf(running.values());
+    }
+
+    @Nullable
+    private static WorldPregenerator load(WorldServer world) {
+        NBTTagCompound spongeNbt = ((IMixinWorldInfo) world.getWorldInfo()).getSpongeNbt();
+        if (!spongeNbt.hasKey(NbtDataUtil.SPONGE_PREGENERATION, NbtDataUtil.TAG_COMPOUND)) {
+            return null;
+        }
+        NBTTagCompound compound = spongeNbt.getCompoundTag(NbtDataUtil.SPONGE_PREGENERATION);
+        Shape shape = compound.getBoolean("Circle") ? Shape.CIRCLE : Shape.SQUARE;
+        WorldPregenerator pregenerator = new WorldPregenerator(world, compound.getInteger("CenterX"), compound.getInteger("CenterZ"),
+                compound.getInteger("Radius"), shape);
+        pregenerator.ring = compound.getInteger("Ring");
+        pregenerator.ringIndex = compound.getInteger("RingIndex");
+        pregenerator.completed = compound.getLong("Completed");
+        return pregenerator;
+    }
+
+    private void save(WorldServer world) {
+        NBTTagCompound compound = new NBTTagCompound();
+        compound.setInteger("CenterX", this.centerX);
+        compound.setInteger("CenterZ", this.centerZ);
+        compound.setInteger("Radius", this.radius);
+        compound.setBoolean("Circle", this.shape == Shape.CIRCLE);
+        compound.setInteger("Ring", this.ring);
+        compound.setInteger("RingIndex", this.ringIndex);
+        compound.setLong("Completed", this.completed);
+        ((IMixinWorldInfo) world.getWorldInfo()).getSpongeNbt().setTag(NbtDataUtil.SPONGE_PREGENERATION, compound);
+    }
+
+    private static long countChunks(int radius, Shape shape) {
+        if (shape == Shape.SQUARE) {
+            return (2L * radius + 1) * (2L * radius + 1);
+        }
+        long count = 0;
+        for (int x = -radius; x <= radius; x++) {
+            count += 2 * (long) Math.sqrt((long) radius * radius - (long) x * x) + 1;
+        }
+        return count;
+    }
+
+    private void schedule(WorldServer world) {
+        running.put(this.worldId, this);
+        this.sessionStart = System.nanoTime();
+        this.sessionCompleted = 0;
+        this.lastWorkNanos = 0;
+        this.task = Sponge.getGame().getScheduler().createTaskBuilder()
+                .name("Sponge world pre-generation - " + world.getWorldInfo().getWorldName())
+                .intervalTicks(1)
+                .execute(scheduled -> tick())
+                .submit(Sponge.getPlugin());
+    }
+
+    private void cancel(WorldServer world) {
+        if (this.task != null) {
+            this.task.cancel();
+            this.task = null;
+        }
+        if (world.theChunkProviderServer.serverChunkGenerator instanceof CustomChunkProviderGenerate) {
+            ((CustomChunkProviderGenerate) world.theChunkProviderServer.serverChunkGenerator).cancelPrefetches();
+        }
+        flush(world, true);
+        save(world);
+    }
+
+    private void tick() {
+        WorldServer world = (WorldServer) Sponge.getGame().getServer().getWorld(this.worldId).orElse(null);
+        if (world == null) {
+            // The world was unloaded, the progress was saved with the last batch
+            running.remove(this.worldId);
+            if (this.task != null) {
+                this.task.cancel();
+            }
+            return;
+        }
+
+        // Only use the time that the rest of the last tick left over
+        MinecraftServer server = MinecraftServer.getServer();
+        long lastTickNanos = server.tickTimeArray[(server.getTickCounter() + 99) % 100];
+        long budget = TICK_NANOS - RESERVED_NANOS - (lastTickNanos - this.lastWorkNanos);
+        long start = System.nanoTime();
+        ChunkProviderServer chunkProvider = world.theChunkProviderServer;
+        prefetch(chunkProvider);
+        while (!isDone() && System.nanoTime() - start < budget) {
+            int x = this.centerX + getOffsetX(this.ring, this.ringIndex);
+            int z = this.centerZ + getOffsetZ(this.ring, this.ringIndex);
+            if (++this.ringIndex >= getRingSize(this.ring)) {
+                this.ring++;
+                this.ringIndex = 0;
+            }
+            if (!contains(x - this.centerX, z - this.centerZ)) {
+                continue;
+            }
+            if (!chunkProvider.chunkExists(x, z)) {
+                // Chunks loaded by someone else stay loaded
+                chunkProvider.loadChunk(x, z);
+                this.unsaved.add(ChunkCoordIntPair.chunkXZ2Int(x, z));
+            }
+            if (chunkProvider.serverChunkGenerator instanceof CustomChunkProviderGenerate) {
+                // Generation may have been started for a chunk that was loaded from disk
+                ((CustomChunkProviderGenerate) chunkProvider.serverChunkGenerator).cancelPrefetch(x, z);
+            }
+            this.completed++;
+            this.sessionCompleted++;
+        }
+        this.lastWorkNanos = System.nanoTime() - start;
+
+        if (isDone()) {
+            flush(world, true);
+            running.remove(this.worldId);
+            ((IMixinWorldInfo) world.getWorldInfo()).getSpongeNbt().removeTag(NbtDataUtil.SPONGE_PREGENERATION);
+            if (this.task != null) {
+                this.task.cancel();
+            }
+            Sponge.getLogger().info("Finished pre-generating {} chunks of world {}", this.completed, world.getWorldInfo().getWorldName());
+        } else if (this.unsaved.size() >= SAVE_BATCH_SIZE) {
+            flush(world, false);
+            save(world);
+        }
+    }
+
+    private void prefetch(ChunkProviderServer chunkProvider) {
+        if (!(chunkProvider.serverChunkGenerator instanceof CustomChunkProviderGenerate)) {
+            return;
+        }
+        CustomChunkProviderGenerate generator = (CustomChunkProviderGenerate) chunkProvider.serverChunkGenerator;
+        int ring = this.ring;
+        int ringIndex = this.ringIndex;
+        while (ring <= this.radius && generator.canPrefetch()) {
+            int x = this.centerX + getOffsetX(ring, ringIndex);
+            int z = this.centerZ + getOffsetZ(ring, ringIndex);
+            if (++ringIndex >= getRingSize(ring)) {
+                ring++;
+                ringIndex = 0;
+            }
+            if (contains(x - this.centerX, z - this.centerZ) && !chunkProvider.chunkExists(x, z) && !isSaved(chunkProvider, x, z)) {
+                generator.prefetch(x, z);
+            }
+        }
+    }
+
+    private static boolean isSaved(ChunkProviderServer chunkProvider, int x, int z) {
+        // Chunks that were already generated are loaded from disk, generating them ahead of time would be wasted
+        return chunkProvider.chunkLoader instanceof IMixinAnvilChunkLoader
+                && ((IMixinAnvilChunkLoader) chunkProvider.chunkLoader).chunkExistsOnDisk(x, z);
+    }
+
+    /**
+     * Queues the generated chunks for unloading, which saves them. Chunks
+     * are only unloaded once all their neighbours were generated, as they
+     * are populated when their neighbours are loaded.
+     *
+     * @param world The world
+     * @param all Whether to unload all chunks, including chunks whose
+     *        neighbours were not generated yet
+     */
+    private void flush(WorldServer world, boolean all) {
+        int kept = 0;
+        for (int i = 0; i < this.unsaved.size(); i++) {
+            long key = this.unsaved.get(i);
+            int x = (int) key;
+            int z = (int) (key >> 32);
+            if (all || Math.max(Math.abs(x - this.centerX), Math.abs(z - this.centerZ)) < this.ring - 1) {
+                world.theChunkProviderServer.dropChunk(x, z);
+            } else {
+                this.unsaved.set(kept++, key);
+            }
+        }
+        this.unsaved.remove(kept, this.unsaved.size() - kept);
+    }
+
+    private boolean contains(int offsetX, int offsetZ) {
+        return this.shape == Shape.SQUARE || (long) offsetX * offsetX + (long) offsetZ * offsetZ <= (long) this.radius * this.radius;
+    }
+
+    private static int getRingSize(int ring) {
+        return ring == 0 ? 1 : 8 * ring;
+    }
+
+    private static int getOffsetX(int ring, int index) {
+        if (ring == 0) {
+            return 0;
+        }
+        int side = index / (2 * ring);
+        int offset = index % (2 * ring);
+        switch (side) {
+            case 0:
+                return -ring + offset;
+            case 1:
+                return ring;
+            case 2:
+                return ring - offset;
+            default:
+                return -ring;
+        }
+    }
+
+    private static int getOffsetZ(int ring, int index) {
+        if (ring == 0) {
+            return 0;
+        }
+        int side = index / (2 * ring);
+        int offset = index % (2 * ring);
+        switch (side) {
+            case 0:
+                return -ring;
+            case 1:
+                return -ring + offset;
+            case 2:
+                return ring;
+            default:
+                return ring - offset;
+        }
+    }
+
+    public boolean isDone() {
+        return this.ring > this.radius;
+    }
+
+    public int getRadius() {
+        return this.radius;
+    }
+
+    public Shape getShape() {
+        return this.shape;
+    }
+
+    public long getCompletedChunks() {
+        return this.completed;
+    }
+
+    public long getTotalChunks() {
+        return this.total;
+    }
+
+    /**
+     * Gets the number of chunks completed per second since the task was
+     * started or resumed.
+     *
+     * @return The chunks per second
+     */
+    public double getChunksPerSecond() {
+        long elapsed = System.nanoTime() - this.sessionStart;
+        return elapsed <= 0 ? 0 : this.sessionCompleted * 1e9 / elapsed;
+    }
+
+    /**
+     * Gets the estimated time until all chunks are generated, based on
+     * {@link #getChunksPerSecond()}.
+     *
+     * @return The estimated time in seconds, or -1 if unknown
+     */
+    public long getEstimatedSecondsLeft() {
+        double rate = getChunksPerSecond();
+        return rate <= 0 ? -1 : (long) ((this.total - this.completed) / rate);
+    }
+
+}
@@ -27,7 +27,11 @@
 import com.flowpowered.math.vector.Vector2i;
 import com.flowpowered.math.vector.Vector3i;
 import net.minecraft.block.Block;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldType;
 import net.minecraft.world.biome.BiomeGenBase;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
 import org.spongepowered.api.world.extent.BiomeArea;
 import org.spongepowered.api.world.extent.BlockVolume;
 
@@ -58,6 +62,18 @@ public static short[] copyToArray(BlockVolume volume, Vector3i min, Vector3i max
             throw new OutOfMemoryError("Cannot copy the blocks to an array because the size limit was reached");
         }
         final short[] copy = new short[(int) memory];
+        if (volume instanceof World && ((World) volume).getWorldType() != WorldType.DEBUG_WORLD) {
+            final World world = (World) volume;
+            for (int chunkX = min.getX() >> 4; chunkX <= max.getX() >> 4; chunkX++) {
+                for (int chunkZ = min.getZ() >> 4; chunkZ <= max.getZ() >> 4; chunkZ++) {
+                    copyFromChunk(world.getChunkFromChunkCoords(chunkX, chunkZ), copy, min, max, size);
+                }
+            }
+            return copy;
+        } else if (volume instanceof Chunk && ((Chunk) volume).getWorld().getWorldType() != WorldType.DEBUG_WORLD) {
+            copyFromChunk((Chunk) volume, copy, min, max, size);
+            return copy;
+        }
         int i = 0;
         for (int x = min.getX(); x <= max.getX(); x++) {
             for (int z = min.getZ(); z <= max.getZ(); z++) {
@@ -69,4 +85,40 @@ public static short[] copyToArray(BlockVolume volume, Vector3i min, Vector3i max
         return copy;
     }
 
+    /**
+     * Copies the part of the volume that lies in the given chunk straight
+     * from the block state ids stored in its sections. Missing sections and
+     * positions outside of the build height are air, which is id 0.
+     */
+    private static void copyFromChunk(Chunk chunk, short[] copy, Vector3i min, Vector3i max, Vector3i size) {
+        final int fromX = Math.max(min.getX(), chunk.xPosition << 4);
+        final int toX = Math.min(max.getX(), (chunk.xPosition << 4) + 15);
+        final int fromZ = Math.max(min.getZ(), chunk.zPosition << 4);
+        final int toZ = Math.min(max.getZ(), (chunk.zPosition << 4) + 15);
+        final int fromY = Math.max(min.getY(), 0);
+        final int toY = Math.min(max.getY(), 255);
+        final int yzSlice = size.getY() * size.getZ();
+        final int yLine = size.getY();
+        final ExtendedBlockStorage[] sections = chunk.getBlockStorageArray();
+
+        for (int sectionY = fromY >> 4; sectionY <= toY >> 4; sectionY++) {
+            final ExtendedBlockStorage section = sections[sectionY];
+            if (section == null) {
+                continue;
+            }
+            final char[] data = section.getData();
+            final int sectionFromY = Math.max(fromY, sectionY << 4);
+            final int sectionToY = Math.min(toY, (sectionY << 4) + 15);
+            for (int x = fromX; x <= toX; x++) {
+                for (int z = fromZ; z <= toZ; z++) {
+                    int index = (x - min.getX()) * yzSlice + (z - min.getZ()) * yLine + (sectionFromY - min.getY());
+                    final int column = (z & 15) << 4 | (x & 15);
+                    for (int y = sectionFromY; y <= sectionToY; y++) {
+                        copy[index++] = (short) data[(y & 15) << 8 | column];
+                    }
+                }
+            }
+        }
+    }
+
 }
@@ -27,10 +27,12 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.flowpowered.math.vector.Vector2i;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import net.minecraft.block.BlockFalling;
 import net.minecraft.entity.EnumCreatureType;
 import net.minecraft.util.BlockPos;
 import net.minecraft.util.IProgressUpdate;
+import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.BiomeGenBase;
 import net.minecraft.world.biome.BiomeGenBase.SpawnListEntry;
@@ -42,25 +44,53 @@
 import org.spongepowered.api.world.extent.MutableBlockVolume;
 import org.spongepowered.api.world.gen.BiomeGenerator;
 import org.spongepowered.api.world.gen.GeneratorPopulator;
+import org.spongepowered.common.Sponge;
+import org.spongepowered.common.configuration.SpongeConfig;
+import org.spongepowered.common.util.SpongeHooks;
+import org.spongepowered.common.util.gen.ByteArrayImmutableBiomeBuffer;
 import org.spongepowered.common.util.gen.ByteArrayMutableBiomeBuffer;
 import org.spongepowered.common.util.gen.ChunkPrimerBuffer;
 
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Similar class to {@link ChunkProviderGenerate}, but instead gets its blocks
  * from a custom chunk generator.
+ *
+ * <p>When parallel generation is enabled in the world config, chunks can be
+ * generated ahead of time using {@link #prefetch(int, int)}. The biome
+ * generator and generator populators then run on a shared fork-join pool,
+ * and only the assembly of the {@link Chunk} happens on the thread that
+ * calls {@link #provideChunk(int, int)}.</p>
+ *
+ * <p>Chunks are never generated ahead of time if the biome generator or
+ * any generator populator wraps a vanilla generator. Those share state
+ * like the {@code IntCache} of the biome layers and are not thread
+ * safe.</p>
  */
 public final class CustomChunkProviderGenerate implements IChunkProvider {
 
     private static final Vector2i CHUNK_AREA = new Vector2i(16, 16);
+    private static final ThreadLocal<ByteArrayMutableBiomeBuffer> BIOME_BUFFERS = ThreadLocal.withInitial(() -> {
+        // Make initially empty biome cache
+        ByteArrayMutableBiomeBuffer buffer = new ByteArrayMutableBiomeBuffer(Vector2i.ZERO, CHUNK_AREA);
+        buffer.detach();
+        return buffer;
+    });
 
     private final BiomeGenerator biomeGenerator;
     private final GeneratorPopulator baseGenerator;
     private final List<GeneratorPopulator> generatorPopulators;
     private final World world;
-    private final ByteArrayMutableBiomeBuffer cachedBiomes;
+    private final TLongObjectHashMap<ForkJoinTask<GeneratedChunk>> prefetched = new TLongObjectHashMap<>();
+    private final AtomicLong generatedChunks = new AtomicLong();
+    private final AtomicLong generationTime = new AtomicLong();
+    private long prefetchedChunks;
 
     /**
      * Gets the chunk generator from the given generator populator and biome
@@ -90,10 +120,6 @@ private CustomChunkProviderGenerate(World world, BiomeGenerator biomeGenerator,
         this.baseGenerator = checkNotNull(baseGenerator, "baseGenerator");
         this.biomeGenerator = checkNotNull(biomeGenerator, "biomeGenerator");
         this.generatorPopulators = checkNotNull(generatorPopulators, "generatorPopulators");
-
-        // Make initially empty biome cache
-        this.cachedBiomes = new ByteArrayMutableBiomeBuffer(Vector2i.ZERO, CHUNK_AREA);
-        this.cachedBiomes.detach();
     }
 
     public GeneratorPopulator getBaseGenerator() {
@@ -136,17 +162,156 @@ public void recreateStructures(Chunk chunk, int chunkX, int chunkZ) {
         // No structure support
     }
 
+    /**
+     * Gets whether {@link #prefetch(int, int)} currently accepts chunks.
+     *
+     * @return Whether chunks can be prefetched
+     */
+    public boolean canPrefetch() {
+        SpongeConfig.WorldCategory config = SpongeHooks.getActiveConfig(this.world).getConfig().getWorld();
+        return config.isParallelGenerationEnabled() && this.prefetched.size() < config.getParallelGenerationQueueSize() && !isVanillaBacked();
+    }
+
+    private boolean isVanillaBacked() {
+        if (this.biomeGenerator instanceof SpongeBiomeGenerator || this.baseGenerator instanceof SpongeGeneratorPopulator) {
+            return true;
+        }
+        for (GeneratorPopulator populator : this.generatorPopulators) {
+            if (populator instanceof SpongeGeneratorPopulator) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Starts generating the given chunk on the generation pool. The chunk
+     * must be requested using {@link #provideChunk(int, int)} afterwards,
+     * which then only has to assemble it. Must be called from the thread
+     * that provides chunks.
+     *
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return False if parallel generation is disabled or too many chunks
+     *         are already being generated, true otherwise
+     */
+    public boolean prefetch(int chunkX, int chunkZ) {
+        final long key = ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ);
+        if (this.prefetched.containsKey(key)) {
+            return true;
+        }
+        if (!canPrefetch()) {
+            return false;
+        }
+        this.prefetched.put(key, GenerationPool.POOL.submit(() -> generate(chunkX, chunkZ)));
+        return true;
+    }
+
+    /**
+     * Stops generating the given chunk ahead of time, for example because
+     * it was loaded from disk instead.
+     *
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     */
+    public void cancelPrefetch(int chunkX, int chunkZ) {
+        final ForkJoinTask<GeneratedChunk> task = this.prefetched.remove(ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ));
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+
+    /**
+     * Stops generating all chunks ahead of time, used when the world is
+     * unloaded.
+     */
+    public void cancelPrefetches() {
+        this.prefetched.forEachValue(task -> {
+            task.cancel(false);
+            return true;
+        });
+        this.prefetched.clear();
+    }
+
+    /**
+     * Gets the number of chunks currently being generated ahead of time.
+     *
+     * @return The number of pending chunks
+     */
+    public int getPendingChunkCount() {
+        return this.prefetched.size();
+    }
+
+    /**
+     * Gets the number of chunks generated by this provider.
+     *
+     * @return The number of generated chunks
+     */
+    public long getGeneratedChunkCount() {
+        return this.generatedChunks.get();
+    }
+
+    /**
+     * Gets the number of chunks that were generated ahead of time.
+     *
+     * @return The number of prefetched chunks
+     */
+    public long getPrefetchedChunkCount() {
+        return this.prefetchedChunks;
+    }
+
+    /**
+     * Gets the time spent generating chunks, summed over all threads.
+     *
+     * @return The generation time in nanoseconds
+     */
+    public long getGenerationTime() {
+        return this.generationTime.get();
+    }
+
     @Override
     public Chunk provideChunk(int chunkX, int chunkZ) {
+        final ForkJoinTask<GeneratedChunk> task = this.prefetched.remove(ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ));
+        GeneratedChunk generated = null;
+        if (task != null) {
+            try {
+                generated = task.join();
+                this.prefetchedChunks++;
+            } catch (RuntimeException e) {
+                Sponge.getLogger().error("Failed to generate chunk ({}, {}) ahead of time, generating it again", chunkX, chunkZ, e);
+            }
+        }
+        if (generated == null) {
+            generated = generate(chunkX, chunkZ);
+        }
+
+        // Assemble chunk
+        Chunk chunk = new Chunk(this.world, generated.primer, chunkX, chunkZ);
+        byte[] biomeArray = chunk.getBiomeArray();
+        System.arraycopy(generated.biomes, 0, biomeArray, 0, biomeArray.length);
+        chunk.generateSkylightMap();
+
+        return chunk;
+    }
+
+    private GeneratedChunk generate(int chunkX, int chunkZ) {
+        final long start = System.nanoTime();
 
         // Generate biomes
-        this.cachedBiomes.reuse(new Vector2i(chunkX << 4, chunkZ << 4));
-        this.biomeGenerator.generateBiomes(this.cachedBiomes);
+        Vector2i biomeMin = new Vector2i(chunkX << 4, chunkZ << 4);
+        ByteArrayMutableBiomeBuffer cachedBiomes = BIOME_BUFFERS.get();
+        cachedBiomes.reuse(biomeMin);
+        final byte[] biomes;
+        try {
+            this.biomeGenerator.generateBiomes(cachedBiomes);
+        } finally {
+            biomes = cachedBiomes.detach().clone();
+        }
 
         // Generate base terrain
         ChunkPrimer chunkprimer = new ChunkPrimer();
         MutableBlockVolume blockBuffer = new ChunkPrimerBuffer(chunkprimer, chunkX, chunkZ);
-        ImmutableBiomeArea biomeBuffer = this.cachedBiomes.getImmutableBiomeCopy();
+        ImmutableBiomeArea biomeBuffer = ByteArrayImmutableBiomeBuffer.newWithoutArrayClone(biomes, biomeMin, CHUNK_AREA);
         this.baseGenerator.populate((org.spongepowered.api.world.World) this.world, blockBuffer, biomeBuffer);
 
         // Apply the generator populators to complete the blockBuffer
@@ -154,13 +319,29 @@ public Chunk provideChunk(int chunkX, int chunkZ) {
             populator.populate((org.spongepowered.api.world.World) this.world, blockBuffer, biomeBuffer);
         }
 
-        // Assemble chunk
-        Chunk chunk = new Chunk(this.world, chunkprimer, chunkX, chunkZ);
-        byte[] biomeArray = chunk.getBiomeArray();
-        System.arraycopy(this.cachedBiomes.detach(), 0, biomeArray, 0, biomeArray.length);
-        chunk.generateSkylightMap();
+        this.generatedChunks.incrementAndGet();
+        this.generationTime.addAndGet(System.nanoTime() - start);
+        return new GeneratedChunk(chunkprimer, biomes);
+    }
 
-        return chunk;
+    private static final class GeneratedChunk {
+
+        final ChunkPrimer primer;
+        final byte[] biomes;
+
+        GeneratedChunk(ChunkPrimer primer, byte[] biomes) {
+            this.primer = primer;
+            this.biomes = biomes;
+        }
+    }
+
+    private static final class GenerationPool {
+
+        static final ForkJoinPool POOL = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Sponge Chunk Generator #" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
     }
 
     // Methods below are simply mirrors of the methods in ChunkProviderGenerate
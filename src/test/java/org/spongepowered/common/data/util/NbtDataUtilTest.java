@@ -0,0 +1,137 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TShortIntHashMap;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+public class NbtDataUtilTest {
+
+    @Test
+    public void testTrackedBlockOwnersRoundTrip() {
+        TShortIntHashMap shortPositions = new TShortIntHashMap();
+        shortPositions.put((short) 0, 3);
+        shortPositions.put((short) -1, 7);
+        shortPositions.put(Short.MIN_VALUE, 0);
+        shortPositions.put(Short.MAX_VALUE, 12);
+        TIntIntHashMap intPositions = new TIntIntHashMap();
+        intPositions.put(Integer.MIN_VALUE, 1);
+        intPositions.put(-42, 2);
+        intPositions.put(123456, 5);
+
+        NBTTagCompound spongeData = new NBTTagCompound();
+        NbtDataUtil.writeTrackedBlockOwners(shortPositions, intPositions, spongeData);
+        assertFalse(spongeData.hasKey(NbtDataUtil.SPONGE_BLOCK_POS_TABLE));
+
+        TShortIntHashMap readShortPositions = new TShortIntHashMap();
+        TIntIntHashMap readIntPositions = new TIntIntHashMap();
+        NbtDataUtil.readTrackedBlockOwners(spongeData, readShortPositions, readIntPositions);
+        assertEquals(shortPositions, readShortPositions);
+        assertEquals(intPositions, readIntPositions);
+    }
+
+    @Test
+    public void testEmptyTrackedBlockOwnersWriteNothing() {
+        NBTTagCompound spongeData = new NBTTagCompound();
+        NbtDataUtil.writeTrackedBlockOwners(new TShortIntHashMap(), new TIntIntHashMap(), spongeData);
+        assertTrue(spongeData.hasNoTags());
+    }
+
+    @Test
+    public void testReadLegacyTrackedBlockOwners() {
+        TShortIntHashMap shortPositions = new TShortIntHashMap();
+        TIntIntHashMap intPositions = new TIntIntHashMap();
+        fill(new Random(0), 100, shortPositions, intPositions);
+
+        TShortIntHashMap readShortPositions = new TShortIntHashMap();
+        TIntIntHashMap readIntPositions = new TIntIntHashMap();
+        NbtDataUtil.readTrackedBlockOwners(writeLegacy(shortPositions, intPositions), readShortPositions, readIntPositions);
+        assertEquals(shortPositions, readShortPositions);
+        assertEquals(intPositions, readIntPositions);
+    }
+
+    @Test
+    public void testPackedTrackedBlockOwnersAreSmaller() throws IOException {
+        TShortIntHashMap shortPositions = new TShortIntHashMap();
+        TIntIntHashMap intPositions = new TIntIntHashMap();
+        fill(new Random(0), 1000, shortPositions, intPositions);
+
+        NBTTagCompound packed = new NBTTagCompound();
+        NbtDataUtil.writeTrackedBlockOwners(shortPositions, intPositions, packed);
+        NBTTagCompound legacy = writeLegacy(shortPositions, intPositions);
+
+        int packedSize = compressedSize(packed);
+        int legacySize = compressedSize(legacy);
+        assertTrue("packed " + packedSize + " bytes, legacy " + legacySize + " bytes", packedSize < legacySize);
+    }
+
+    private static void fill(Random random, int count, TShortIntHashMap shortPositions, TIntIntHashMap intPositions) {
+        for (int i = 0; i < count; i++) {
+            if (random.nextBoolean()) {
+                shortPositions.put((short) random.nextInt(), random.nextInt(8));
+            } else {
+                intPositions.put(random.nextInt(), random.nextInt(8));
+            }
+        }
+    }
+
+    private static NBTTagCompound writeLegacy(TShortIntHashMap shortPositions, TIntIntHashMap intPositions) {
+        NBTTagList positions = new NBTTagList();
+        for (short pos : shortPositions.keys()) {
+            NBTTagCompound valueNbt = new NBTTagCompound();
+            valueNbt.setShort("pos", pos);
+            valueNbt.setInteger("uuid", shortPositions.get(pos));
+            positions.appendTag(valueNbt);
+        }
+        for (int pos : intPositions.keys()) {
+            NBTTagCompound valueNbt = new NBTTagCompound();
+            valueNbt.setInteger("ipos", pos);
+            valueNbt.setInteger("uuid", intPositions.get(pos));
+            positions.appendTag(valueNbt);
+        }
+        NBTTagCompound spongeData = new NBTTagCompound();
+        spongeData.setTag(NbtDataUtil.SPONGE_BLOCK_POS_TABLE, positions);
+        return spongeData;
+    }
+
+    private static int compressedSize(NBTTagCompound compound) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompressedStreamTools.writeCompressed(compound, out);
+        return out.size();
+    }
+
+}
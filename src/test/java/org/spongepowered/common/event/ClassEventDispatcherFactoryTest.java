@@ -0,0 +1,134 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.spongepowered.api.event.Cancellable;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.plugin.PluginContainer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ClassEventDispatcherFactoryTest {
+
+    private final ClassEventDispatcherFactory factory = new ClassEventDispatcherFactory("org.spongepowered.common.event.dispatcher");
+    private final PluginContainer plugin = mock(PluginContainer.class);
+
+    public interface CancellableEvent extends Event, Cancellable {
+    }
+
+    private static CancellableEvent createCancellableEvent(AtomicBoolean cancelled) {
+        CancellableEvent event = mock(CancellableEvent.class);
+        when(event.isCancelled()).thenAnswer(invocation -> cancelled.get());
+        return event;
+    }
+
+    private RegisteredListener<?> createListener(StringBuilder calls, String name, boolean ignoreCancelled, Runnable action) {
+        return new RegisteredListener<>(this.plugin, Event.class, Order.DEFAULT, event -> {
+            calls.append(name);
+            action.run();
+        }, ignoreCancelled, false);
+    }
+
+    @Test
+    public void testEmptyChain() throws Exception {
+        EventDispatcher dispatcher = this.factory.create(Collections.<RegisteredListener<?>>emptyList());
+        assertSame(EventDispatcher.EMPTY, dispatcher);
+        assertTrue(dispatcher.dispatch(createCancellableEvent(new AtomicBoolean(true))));
+        assertFalse(dispatcher.dispatch(mock(Event.class)));
+    }
+
+    @Test
+    public void testListenersRunInOrder() throws Exception {
+        StringBuilder calls = new StringBuilder();
+        List<RegisteredListener<?>> listeners = new ArrayList<>();
+        // Enough listeners to load their indices with every constant instruction
+        for (int i = 0; i < 200; i++) {
+            listeners.add(createListener(calls, String.valueOf((char) ('0' + i % 10)), i % 2 == 0, () -> { }));
+        }
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            expected.append((char) ('0' + i % 10));
+        }
+        assertFalse(this.factory.create(listeners).dispatch(mock(Event.class)));
+        assertEquals(expected.toString(), calls.toString());
+    }
+
+    @Test
+    public void testCancelledEventSkipsIgnoringListeners() throws Exception {
+        StringBuilder calls = new StringBuilder();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        List<RegisteredListener<?>> listeners = new ArrayList<>();
+        listeners.add(createListener(calls, "a", true, () -> { }));
+        listeners.add(createListener(calls, "b", false, () -> cancelled.set(true)));
+        listeners.add(createListener(calls, "c", true, () -> { }));
+        listeners.add(createListener(calls, "d", false, () -> { }));
+        listeners.add(createListener(calls, "e", true, () -> { }));
+        listeners.add(createListener(calls, "f", false, () -> cancelled.set(false)));
+        listeners.add(createListener(calls, "g", true, () -> { }));
+
+        EventDispatcher dispatcher = this.factory.create(listeners);
+        assertFalse(dispatcher.dispatch(createCancellableEvent(cancelled)));
+        assertEquals("abdfg", calls.toString());
+
+        calls.setLength(0);
+        cancelled.set(true);
+        listeners.remove(5);
+        assertTrue(this.factory.create(listeners).dispatch(createCancellableEvent(cancelled)));
+        assertEquals("bd", calls.toString());
+    }
+
+    @Test
+    public void testChainsOfTheSameShapeShareAClass() throws Exception {
+        StringBuilder calls = new StringBuilder();
+        List<RegisteredListener<?>> first = new ArrayList<>();
+        first.add(createListener(calls, "a", true, () -> { }));
+        first.add(createListener(calls, "b", false, () -> { }));
+        List<RegisteredListener<?>> second = new ArrayList<>();
+        second.add(createListener(calls, "c", true, () -> { }));
+        second.add(createListener(calls, "d", false, () -> { }));
+        List<RegisteredListener<?>> other = new ArrayList<>();
+        other.add(createListener(calls, "e", false, () -> { }));
+        other.add(createListener(calls, "f", true, () -> { }));
+
+        EventDispatcher dispatcher = this.factory.create(first);
+        assertSame(dispatcher.getClass(), this.factory.create(second).getClass());
+        assertFalse(dispatcher.getClass() == this.factory.create(other).getClass());
+        this.factory.create(second).dispatch(mock(Event.class));
+        assertEquals("cd", calls.toString());
+    }
+
+}
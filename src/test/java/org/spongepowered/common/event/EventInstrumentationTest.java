@@ -0,0 +1,65 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class EventInstrumentationTest {
+
+    @Test
+    public void testPercentileOfEmptyStats() {
+        EventInstrumentation.ListenerStats stats = new EventInstrumentation.ListenerStats(null);
+        assertEquals(0, stats.getPercentileNanos(0.99));
+    }
+
+    @Test
+    public void testPercentileBounds() {
+        EventInstrumentation.ListenerStats stats = new EventInstrumentation.ListenerStats(null);
+        for (int i = 0; i < 99; i++) {
+            stats.record(1000, 0);
+        }
+        stats.record(1000000, 0);
+
+        long p99 = stats.getPercentileNanos(0.99);
+        assertTrue(p99 >= 1000 && p99 < 1250);
+        long max = stats.getPercentileNanos(1);
+        assertTrue(max >= 1000000 && max < 1250000);
+    }
+
+    @Test
+    public void testCounters() {
+        EventInstrumentation.ListenerStats stats = new EventInstrumentation.ListenerStats(null);
+        stats.record(3, 16);
+        stats.record(5, 32);
+        assertEquals(2, stats.getInvocations());
+        assertEquals(8, stats.getTotalNanos());
+        assertEquals(48, stats.getAllocatedBytes());
+        assertEquals(3, stats.getPercentileNanos(0.5));
+    }
+
+}
@@ -0,0 +1,256 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.service.scheduler.Task;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class SyncSchedulerTest {
+
+    private static ScheduledTask createTask(Consumer<Task> consumer, long delay, long interval) {
+        return createTask(consumer, delay, interval, null);
+    }
+
+    private static ScheduledTask createTask(Consumer<Task> consumer, long delay, long interval, PluginContainer owner) {
+        return new ScheduledTask(ScheduledTask.TaskSynchronicity.SYNCHRONOUS, consumer, "test", delay, true, interval, true, owner);
+    }
+
+    private static PluginContainer createPlugin(String id) {
+        PluginContainer plugin = mock(PluginContainer.class);
+        when(plugin.getId()).thenReturn(id);
+        when(plugin.getName()).thenReturn(id);
+        return plugin;
+    }
+
+    /**
+     * A scheduler whose tick budget is measured with a clock that only the
+     * tasks advance.
+     */
+    private static final class BudgetScheduler extends SyncScheduler {
+
+        long now;
+
+        BudgetScheduler(long tickBudget, String... deferrablePlugins) {
+            this.setTickBudget(tickBudget, ImmutableList.copyOf(deferrablePlugins));
+        }
+
+        @Override
+        long nanoTime() {
+            return this.now;
+        }
+
+        Consumer<Task> run(StringBuilder runs, String name, long nanos) {
+            return task -> {
+                runs.append(name);
+                this.now += nanos;
+            };
+        }
+    }
+
+    /**
+     * A scheduler that rejects the first runnables, like a saturated async
+     * executor with the discard policy.
+     */
+    private static final class RejectingScheduler extends SyncScheduler {
+
+        int rejections;
+
+        RejectingScheduler(int rejections) {
+            this.rejections = rejections;
+        }
+
+        @Override
+        protected boolean executeTaskRunnable(ScheduledTask task, Runnable runnable) {
+            if (this.rejections > 0) {
+                this.rejections--;
+                return false;
+            }
+            return super.executeTaskRunnable(task, runnable);
+        }
+    }
+
+    @Test
+    public void testOnlyDueTasksRun() {
+        SyncScheduler scheduler = new SyncScheduler();
+        AtomicInteger runs = new AtomicInteger();
+        int tasks = 50000;
+        for (int i = 0; i < tasks; i++) {
+            scheduler.addTask(createTask(task -> runs.incrementAndGet(), i % 100, 0));
+        }
+        for (int tick = 1; tick <= 100; tick++) {
+            scheduler.tick();
+            // The tasks with a delay of at most the current tick have run
+            assertEquals(tasks / 100 * Math.min(tick + 1, 100), runs.get());
+        }
+        assertEquals(0, scheduler.getScheduledTasks().size());
+    }
+
+    @Test
+    public void testRepeatingTask() {
+        SyncScheduler scheduler = new SyncScheduler();
+        AtomicInteger runs = new AtomicInteger();
+        scheduler.addTask(createTask(task -> runs.incrementAndGet(), 0, 3));
+        for (int tick = 0; tick < 10; tick++) {
+            scheduler.tick();
+        }
+        // Runs on the ticks 1, 4, 7 and 10
+        assertEquals(4, runs.get());
+        assertEquals(1, scheduler.getScheduledTasks().size());
+    }
+
+    @Test
+    public void testRejectedRepeatingTask() {
+        RejectingScheduler scheduler = new RejectingScheduler(1);
+        AtomicInteger runs = new AtomicInteger();
+        scheduler.addTask(createTask(task -> runs.incrementAndGet(), 0, 3));
+        for (int tick = 0; tick < 10; tick++) {
+            scheduler.tick();
+        }
+        // Rejected on tick 1, runs again on the ticks 4, 7 and 10
+        assertEquals(3, runs.get());
+        assertEquals(1, scheduler.getScheduledTasks().size());
+    }
+
+    @Test
+    public void testRejectedTaskIsRemoved() {
+        RejectingScheduler scheduler = new RejectingScheduler(1);
+        AtomicInteger runs = new AtomicInteger();
+        scheduler.addTask(createTask(task -> runs.incrementAndGet(), 0, 0));
+        scheduler.tick();
+        scheduler.tick();
+        assertEquals(0, runs.get());
+        assertEquals(0, scheduler.getScheduledTasks().size());
+    }
+
+    @Test
+    public void testCancelledTask() {
+        SyncScheduler scheduler = new SyncScheduler();
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledTask task = createTask(t -> runs.incrementAndGet(), 1000, 0);
+        scheduler.addTask(task);
+        scheduler.tick();
+        task.cancel();
+        assertFalse(scheduler.getTask(task.getUniqueId()).isPresent());
+        for (int tick = 0; tick < 1000; tick++) {
+            scheduler.tick();
+        }
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void testTaskQueueCoalescing() {
+        SyncScheduler scheduler = new SyncScheduler();
+        StringBuilder runs = new StringBuilder();
+        scheduler.getTaskQueue().execute(() -> runs.append('a'));
+        scheduler.getTaskQueue().execute("key", () -> runs.append('b'));
+        scheduler.getTaskQueue().execute(() -> runs.append('c'));
+        scheduler.getTaskQueue().execute("key", () -> runs.append('d'));
+        assertEquals(3, scheduler.getTaskQueue().getDepth());
+        scheduler.tick();
+        // The latest runnable for the key runs in place of the first one
+        assertEquals("adc", runs.toString());
+        assertEquals(1, scheduler.getTaskQueue().getReplaced());
+        assertEquals(0, scheduler.getTaskQueue().getDepth());
+    }
+
+    @Test
+    public void testDeferredTasksSpillOverBudget() {
+        PluginContainer plugin = createPlugin("deferrable");
+        BudgetScheduler scheduler = new BudgetScheduler(10, "deferrable");
+        StringBuilder runs = new StringBuilder();
+        for (int i = 1; i <= 5; i++) {
+            scheduler.addTask(createTask(scheduler.run(runs, String.valueOf(i), 4), 0, 0, plugin));
+        }
+        scheduler.tick();
+        // The third task starts within the budget and overruns it
+        assertEquals("123", runs.toString());
+        scheduler.tick();
+        assertEquals("12345", runs.toString());
+        assertEquals(2, scheduler.getTaskStats().get(plugin).getDeferred());
+        assertEquals(1, scheduler.getTaskStats().get(plugin).getOverruns());
+        assertEquals(0, scheduler.getScheduledTasks().size());
+    }
+
+    @Test
+    public void testDeferredTasksRunBeforeNewlyDueTasks() {
+        PluginContainer plugin = createPlugin("deferrable");
+        BudgetScheduler scheduler = new BudgetScheduler(10, "deferrable");
+        StringBuilder runs = new StringBuilder();
+        scheduler.addTask(createTask(scheduler.run(runs, "1", 6), 0, 0, plugin));
+        scheduler.addTask(createTask(scheduler.run(runs, "2", 6), 0, 0, plugin));
+        scheduler.addTask(createTask(scheduler.run(runs, "3", 6), 0, 0, plugin));
+        scheduler.addTask(createTask(scheduler.run(runs, "n", 0), 2, 0, plugin));
+        scheduler.tick();
+        assertEquals("12", runs.toString());
+        scheduler.tick();
+        assertEquals("123n", runs.toString());
+    }
+
+    @Test
+    public void testDeferredTasksRoundRobin() {
+        PluginContainer first = createPlugin("first");
+        PluginContainer second = createPlugin("second");
+        BudgetScheduler scheduler = new BudgetScheduler(10, "first", "second");
+        StringBuilder runs = new StringBuilder();
+        scheduler.addTask(createTask(scheduler.run(runs, "a", 3), 0, 0, first));
+        scheduler.addTask(createTask(scheduler.run(runs, "b", 3), 0, 0, first));
+        scheduler.addTask(createTask(scheduler.run(runs, "c", 3), 0, 0, first));
+        scheduler.addTask(createTask(scheduler.run(runs, "A", 3), 0, 0, second));
+        scheduler.addTask(createTask(scheduler.run(runs, "B", 3), 0, 0, second));
+        scheduler.tick();
+        // The plugins take turns, even though all tasks of the first plugin were due first
+        assertEquals("aAbB", runs.toString());
+        scheduler.tick();
+        assertEquals("aAbBc", runs.toString());
+    }
+
+    @Test
+    public void testCancelledDeferredTask() {
+        PluginContainer plugin = createPlugin("deferrable");
+        BudgetScheduler scheduler = new BudgetScheduler(10, "deferrable");
+        StringBuilder runs = new StringBuilder();
+        scheduler.addTask(createTask(scheduler.run(runs, "1", 10), 0, 0, plugin));
+        ScheduledTask deferred = createTask(scheduler.run(runs, "2", 0), 0, 0, plugin);
+        scheduler.addTask(deferred);
+        scheduler.tick();
+        assertEquals("1", runs.toString());
+        deferred.cancel();
+        scheduler.tick();
+        assertEquals("1", runs.toString());
+        assertFalse(scheduler.getTask(deferred.getUniqueId()).isPresent());
+        assertEquals(0, scheduler.getScheduledTasks().size());
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.StampedLock;
+
+public class SectionLocksTest {
+
+    @Test
+    public void testLockCountIsBounded() {
+        assertEquals(1, countLocks(new SectionLocks(1), 1));
+        assertTrue(countLocks(new SectionLocks(8), 2) <= 8);
+        assertTrue(countLocks(new SectionLocks(32768), 32) <= 64);
+    }
+
+    @Test
+    public void testLockAllExcludesSectionWrites() {
+        SectionLocks locks = new SectionLocks(64);
+        long[] stamps = locks.lockAll(false);
+        StampedLock lock = locks.get(1, 2, 3);
+        assertEquals(0, lock.tryWriteLock());
+        assertTrue(lock.tryOptimisticRead() != 0);
+        locks.unlockAll(stamps);
+
+        stamps = locks.lockAll(true);
+        assertEquals(0, lock.tryReadLock());
+        assertEquals(0, lock.tryOptimisticRead());
+        locks.unlockAll(stamps);
+
+        long stamp = lock.tryWriteLock();
+        assertTrue(stamp != 0);
+        lock.unlockWrite(stamp);
+    }
+
+    @Test
+    public void testSnapshotsSeeWholeCommits() throws InterruptedException {
+        final SectionLocks locks = new SectionLocks(64);
+        final short[] blocks = new short[16 * 16 * 16 * 64];
+        final AtomicBoolean torn = new AtomicBoolean();
+        final CountDownLatch done = new CountDownLatch(4);
+        for (int t = 0; t < 4; t++) {
+            final boolean writer = t % 2 == 0;
+            new Thread(() -> {
+                short[] commit = new short[blocks.length];
+                for (short i = 0; i < 200; i++) {
+                    long[] stamps = locks.lockAll(writer);
+                    try {
+                        if (writer) {
+                            Arrays.fill(commit, i);
+                            System.arraycopy(commit, 0, blocks, 0, blocks.length);
+                        } else {
+                            short[] snapshot = blocks.clone();
+                            for (short id : snapshot) {
+                                if (id != snapshot[0]) {
+                                    torn.set(true);
+                                }
+                            }
+                        }
+                    } finally {
+                        locks.unlockAll(stamps);
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        assertFalse(torn.get());
+    }
+
+    private static int countLocks(SectionLocks locks, int sections) {
+        Set<StampedLock> seen = new HashSet<>();
+        for (int x = 0; x < sections; x++) {
+            for (int y = 0; y < sections; y++) {
+                for (int z = 0; z < sections; z++) {
+                    seen.add(locks.get(x, y, z));
+                }
+            }
+        }
+        return seen.size();
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.flowpowered.math.vector.Vector3i;
+import net.minecraft.util.BlockPos;
+import org.junit.Test;
+import org.spongepowered.api.block.BlockSnapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class BlockCaptureListTest {
+
+    private static BlockSnapshot createSnapshot(BlockPos pos) {
+        BlockSnapshot snapshot = mock(BlockSnapshot.class);
+        when(snapshot.getPosition()).thenReturn(new Vector3i(pos.getX(), pos.getY(), pos.getZ()));
+        return snapshot;
+    }
+
+    @Test
+    public void testFirstSnapshotIsKept() {
+        BlockCaptureList list = new BlockCaptureList();
+        BlockPos pos = new BlockPos(-1, 64, 1);
+        BlockSnapshot original = createSnapshot(pos);
+        assertTrue(list.add(pos, original));
+        assertFalse(list.add(createSnapshot(pos)));
+        assertEquals(1, list.size());
+        assertSame(original, list.get(0));
+    }
+
+    @Test
+    public void testIndexedAccessDuringIteration() {
+        BlockCaptureList list = new BlockCaptureList();
+        List<BlockSnapshot> snapshots = new ArrayList<>();
+        for (int x = 0; x < 6; x++) {
+            BlockPos pos = new BlockPos(x, 0, 0);
+            BlockSnapshot snapshot = createSnapshot(pos);
+            snapshots.add(snapshot);
+            list.add(pos, snapshot);
+        }
+        list.remove(new BlockPos(1, 0, 0), snapshots.get(1));
+        Iterator<BlockSnapshot> iterator = list.iterator();
+        assertSame(snapshots.get(0), iterator.next());
+        assertSame(snapshots.get(2), iterator.next());
+        iterator.remove();
+        // Compacts the slots freed by both removals
+        assertSame(snapshots.get(3), list.get(1));
+        assertSame(snapshots.get(3), iterator.next());
+        iterator.remove();
+        assertSame(snapshots.get(4), list.get(1));
+        assertSame(snapshots.get(4), iterator.next());
+        assertSame(snapshots.get(5), iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(0);
+        BlockCaptureList list = new BlockCaptureList();
+        List<BlockSnapshot> reference = new ArrayList<>();
+        Map<BlockPos, BlockSnapshot> byPosition = new HashMap<>();
+        Map<BlockSnapshot, BlockPos> positions = new HashMap<>();
+        for (int operation = 0; operation < 20000; operation++) {
+            BlockPos pos = new BlockPos(random.nextInt(8) - 4, random.nextInt(4), random.nextInt(2));
+            switch (random.nextInt(6)) {
+                case 0:
+                case 1: {
+                    BlockSnapshot snapshot = createSnapshot(pos);
+                    boolean added = !byPosition.containsKey(pos);
+                    assertEquals(added, list.add(pos, snapshot));
+                    if (added) {
+                        reference.add(snapshot);
+                        byPosition.put(pos, snapshot);
+                        positions.put(snapshot, pos);
+                    }
+                    break;
+                }
+                case 2: {
+                    // Either the captured snapshot or a different one at the same position
+                    BlockSnapshot snapshot = byPosition.get(pos);
+                    boolean removed = snapshot != null && random.nextBoolean();
+                    if (!removed) {
+                        snapshot = createSnapshot(pos);
+                    }
+                    assertEquals(removed, list.remove(pos, snapshot));
+                    if (removed) {
+                        reference.remove(snapshot);
+                        byPosition.remove(pos);
+                    }
+                    break;
+                }
+                case 3: {
+                    if (!reference.isEmpty()) {
+                        int index = random.nextInt(reference.size());
+                        assertSame(reference.get(index), list.get(index));
+                    }
+                    break;
+                }
+                case 4: {
+                    Iterator<BlockSnapshot> iterator = list.iterator();
+                    Iterator<BlockSnapshot> referenceIterator = reference.iterator();
+                    while (referenceIterator.hasNext()) {
+                        assertTrue(iterator.hasNext());
+                        BlockSnapshot snapshot = iterator.next();
+                        assertSame(referenceIterator.next(), snapshot);
+                        if (random.nextInt(4) == 0) {
+                            iterator.remove();
+                            referenceIterator.remove();
+                            byPosition.remove(positions.get(snapshot));
+                        }
+                        if (random.nextInt(4) == 0 && !reference.isEmpty()) {
+                            int index = random.nextInt(reference.size());
+                            assertSame(reference.get(index), list.get(index));
+                        }
+                    }
+                    assertFalse(iterator.hasNext());
+                    break;
+                }
+                default: {
+                    if (random.nextInt(50) == 0) {
+                        list.clear();
+                        reference.clear();
+                        byPosition.clear();
+                    }
+                    break;
+                }
+            }
+            assertEquals(reference.size(), list.size());
+            assertEquals(byPosition.containsKey(pos), list.contains(pos));
+            if (operation % 100 == 0) {
+                assertEquals(reference, list);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import net.minecraft.util.BlockPos;
+import net.minecraft.world.NextTickListEntry;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class ScheduledUpdateSetTest {
+
+    private static NextTickListEntry createEntry(Random random) {
+        // The block is not used by the set
+        NextTickListEntry entry = new NextTickListEntry(new BlockPos(random.nextInt(48) - 24, random.nextInt(2), random.nextInt(48) - 24),
+                null);
+        entry.setScheduledTime(random.nextInt(20));
+        entry.setPriority(random.nextInt(3));
+        return entry;
+    }
+
+    private static void assertSameEntries(Iterable<NextTickListEntry> expected, Iterable<NextTickListEntry> actual) {
+        Iterator<NextTickListEntry> iterator = actual.iterator();
+        for (NextTickListEntry entry : expected) {
+            assertTrue(iterator.hasNext());
+            assertSame(entry, iterator.next());
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    private static void assertIndexed(TreeSet<NextTickListEntry> reference, ScheduledUpdateSet set, Random random) {
+        BlockPos pos = createEntry(random).position;
+        List<NextTickListEntry> atPos = new ArrayList<>();
+        for (NextTickListEntry entry : reference) {
+            if (entry.position.equals(pos)) {
+                atPos.add(entry);
+            }
+        }
+        assertSameEntries(atPos, set.getEntriesAt(pos));
+
+        int chunkX = pos.getX() >> 4;
+        int chunkZ = pos.getZ() >> 4;
+        int minX = (chunkX << 4) + random.nextInt(8);
+        int minZ = (chunkZ << 4) + random.nextInt(8);
+        int maxX = minX + random.nextInt(16);
+        int maxZ = minZ + random.nextInt(16);
+        Set<NextTickListEntry> inChunk = Collections.newSetFromMap(new IdentityHashMap<NextTickListEntry, Boolean>());
+        for (NextTickListEntry entry : reference) {
+            BlockPos entryPos = entry.position;
+            if (entryPos.getX() >> 4 == chunkX && entryPos.getZ() >> 4 == chunkZ && entryPos.getX() >= minX && entryPos.getX() < maxX
+                    && entryPos.getZ() >= minZ && entryPos.getZ() < maxZ) {
+                inChunk.add(entry);
+            }
+        }
+        List<NextTickListEntry> collected = new ArrayList<>();
+        set.collectEntriesInChunk(chunkX, chunkZ, minX, minZ, maxX, maxZ, collected);
+        assertEquals(inChunk.size(), collected.size());
+        for (NextTickListEntry entry : collected) {
+            assertTrue(inChunk.contains(entry));
+        }
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(0);
+        ScheduledUpdateSet set = new ScheduledUpdateSet();
+        TreeSet<NextTickListEntry> reference = new TreeSet<>();
+        List<NextTickListEntry> entries = new ArrayList<>();
+        for (int operation = 0; operation < 20000; operation++) {
+            switch (random.nextInt(7)) {
+                case 0:
+                case 1: {
+                    NextTickListEntry entry = createEntry(random);
+                    assertTrue(set.add(entry));
+                    reference.add(entry);
+                    entries.add(entry);
+                    break;
+                }
+                case 2: {
+                    // Either a pending entry, an entry that was already removed or one that was never added
+                    NextTickListEntry entry = entries.isEmpty() || random.nextInt(4) == 0 ? createEntry(random)
+                            : entries.get(random.nextInt(entries.size()));
+                    boolean pending = reference.remove(entry);
+                    if (pending) {
+                        assertFalse(set.add(entry));
+                    }
+                    assertEquals(pending, set.remove(entry));
+                    break;
+                }
+                case 3: {
+                    List<NextTickListEntry> batch = new ArrayList<>();
+                    for (int i = random.nextInt(8); i > 0; i--) {
+                        batch.add(createEntry(random));
+                    }
+                    assertEquals(reference.addAll(batch), set.addAll(batch));
+                    entries.addAll(batch);
+                    break;
+                }
+                case 4: {
+                    assertSame(reference.pollFirst(), set.pollFirst());
+                    break;
+                }
+                case 5: {
+                    // Removes the due entries like WorldServer#tickUpdates
+                    long time = random.nextInt(20);
+                    Iterator<NextTickListEntry> iterator = set.iterator();
+                    Iterator<NextTickListEntry> referenceIterator = reference.iterator();
+                    while (referenceIterator.hasNext()) {
+                        NextTickListEntry entry = iterator.next();
+                        assertSame(referenceIterator.next(), entry);
+                        if (entry.scheduledTime <= time) {
+                            iterator.remove();
+                            referenceIterator.remove();
+                        }
+                    }
+                    assertFalse(iterator.hasNext());
+                    break;
+                }
+                default: {
+                    if (random.nextInt(50) == 0) {
+                        set.clear();
+                        reference.clear();
+                        entries.clear();
+                    }
+                    break;
+                }
+            }
+            if (entries.size() > 1000) {
+                entries.clear();
+            }
+            assertEquals(reference.size(), set.size());
+            assertIndexed(reference, set, random);
+            if (operation % 100 == 0) {
+                assertSameEntries(reference, set);
+            }
+        }
+    }
+
+}
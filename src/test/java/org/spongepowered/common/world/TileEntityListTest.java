@@ -0,0 +1,208 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.tileentity.TileEntityChest;
+import net.minecraft.tileentity.TileEntityFurnace;
+import net.minecraft.tileentity.TileEntityNote;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class TileEntityListTest {
+
+    private static final List<Class<? extends TileEntity>> TYPES =
+            ImmutableList.<Class<? extends TileEntity>>of(TileEntityChest.class, TileEntityFurnace.class, TileEntityNote.class);
+
+    private static TileEntity createTileEntity(Random random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return new TileEntityChest();
+            case 1:
+                return new TileEntityFurnace();
+            default:
+                return new TileEntityNote();
+        }
+    }
+
+    private static void assertIndexed(List<TileEntity> reference, TileEntityList list, List<List<TileEntity>> views) {
+        assertEquals(reference.size(), list.size());
+        for (int i = 0; i < reference.size(); i++) {
+            assertSame(reference.get(i), list.get(i));
+        }
+        for (int i = 0; i < TYPES.size(); i++) {
+            List<TileEntity> expected = new ArrayList<>();
+            for (TileEntity tileEntity : reference) {
+                if (tileEntity.getClass() == TYPES.get(i)) {
+                    expected.add(tileEntity);
+                }
+            }
+            // Views taken before the changes must reflect them as well
+            for (List<TileEntity> actual : ImmutableList.of(views.get(i), list.getByClass(TYPES.get(i)))) {
+                assertEquals(expected.size(), actual.size());
+                for (int j = 0; j < expected.size(); j++) {
+                    assertSame(expected.get(j), actual.get(j));
+                }
+            }
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testViewsAreReadOnly() {
+        TileEntityList list = new TileEntityList();
+        list.add(new TileEntityChest());
+        list.getByClass(TileEntityChest.class).remove(0);
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(0);
+        TileEntityList list = new TileEntityList();
+        List<TileEntity> reference = new ArrayList<>();
+        List<List<TileEntity>> views = new ArrayList<>();
+        for (Class<? extends TileEntity> type : TYPES) {
+            views.add(list.getByClass(type));
+        }
+        for (int operation = 0; operation < 20000; operation++) {
+            switch (random.nextInt(12)) {
+                case 0:
+                case 1:
+                case 2: {
+                    TileEntity tileEntity = createTileEntity(random);
+                    assertTrue(list.add(tileEntity));
+                    reference.add(tileEntity);
+                    break;
+                }
+                case 3: {
+                    List<TileEntity> batch = new ArrayList<>();
+                    for (int i = random.nextInt(5); i > 0; i--) {
+                        batch.add(createTileEntity(random));
+                    }
+                    assertEquals(reference.addAll(batch), list.addAll(batch));
+                    break;
+                }
+                case 4: {
+                    int index = random.nextInt(reference.size() + 1);
+                    TileEntity tileEntity = createTileEntity(random);
+                    list.add(index, tileEntity);
+                    reference.add(index, tileEntity);
+                    break;
+                }
+                case 5: {
+                    if (!reference.isEmpty()) {
+                        int index = random.nextInt(reference.size());
+                        assertSame(reference.remove(index), list.remove(index));
+                    }
+                    break;
+                }
+                case 6: {
+                    // Either a loaded tile entity or one that was never added
+                    TileEntity tileEntity = reference.isEmpty() || random.nextBoolean() ? createTileEntity(random)
+                            : reference.get(random.nextInt(reference.size()));
+                    assertEquals(reference.remove(tileEntity), list.remove(tileEntity));
+                    break;
+                }
+                case 7: {
+                    // Unloads a batch like World#updateEntities
+                    Set<TileEntity> unloaded = Collections.newSetFromMap(new IdentityHashMap<TileEntity, Boolean>());
+                    for (TileEntity tileEntity : reference) {
+                        if (random.nextInt(8) == 0) {
+                            unloaded.add(tileEntity);
+                        }
+                    }
+                    assertEquals(reference.removeAll(unloaded), list.removeAll(unloaded));
+                    break;
+                }
+                case 8: {
+                    Class<?> type = TYPES.get(random.nextInt(TYPES.size()));
+                    Set<TileEntity> removed = Collections.newSetFromMap(new IdentityHashMap<TileEntity, Boolean>());
+                    for (TileEntity tileEntity : reference) {
+                        if (tileEntity.getClass() == type && random.nextBoolean()) {
+                            removed.add(tileEntity);
+                        }
+                    }
+                    assertEquals(reference.removeIf(removed::contains), list.removeIf(removed::contains));
+                    break;
+                }
+                case 9: {
+                    Iterator<TileEntity> iterator = list.iterator();
+                    Iterator<TileEntity> referenceIterator = reference.iterator();
+                    while (referenceIterator.hasNext()) {
+                        assertSame(referenceIterator.next(), iterator.next());
+                        if (random.nextInt(4) == 0) {
+                            iterator.remove();
+                            referenceIterator.remove();
+                        }
+                    }
+                    assertFalse(iterator.hasNext());
+                    break;
+                }
+                case 10: {
+                    if (!reference.isEmpty()) {
+                        int index = random.nextInt(reference.size());
+                        TileEntity tileEntity = createTileEntity(random);
+                        assertSame(reference.set(index, tileEntity), list.set(index, tileEntity));
+                        if (random.nextBoolean()) {
+                            int to = index + random.nextInt(reference.size() - index + 1);
+                            reference.subList(index, to).clear();
+                            list.subList(index, to).clear();
+                        }
+                    }
+                    break;
+                }
+                default: {
+                    if (random.nextInt(20) == 0) {
+                        Set<TileEntity> retained = Collections.newSetFromMap(new IdentityHashMap<TileEntity, Boolean>());
+                        for (TileEntity tileEntity : reference) {
+                            if (random.nextBoolean()) {
+                                retained.add(tileEntity);
+                            }
+                        }
+                        assertEquals(reference.retainAll(retained), list.retainAll(retained));
+                    } else if (random.nextInt(20) == 0) {
+                        list.clear();
+                        reference.clear();
+                    }
+                    break;
+                }
+            }
+            assertIndexed(reference, list, views);
+        }
+    }
+
+}